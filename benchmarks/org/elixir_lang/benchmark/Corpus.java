@@ -0,0 +1,79 @@
+package org.elixir_lang.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The `.ex` and `.exs` files in `testData` that the benchmarks lex, parse and quote.
+ */
+public class Corpus {
+    /**
+     * Files at least this big are in the {@link Size#LARGE} corpus, such as decompiled `Kernel` and `:gl`.
+     */
+    private static final long LARGE_SIZE = 100 * 1024;
+
+    public enum Size {
+        ALL,
+        LARGE
+    }
+
+    public static class Source {
+        @NotNull
+        public final String name;
+        @NotNull
+        public final String text;
+
+        Source(@NotNull String name, @NotNull String text) {
+            this.name = name;
+            this.text = text;
+        }
+    }
+
+    @NotNull
+    public static List<Source> load(@NotNull Size size) {
+        try (Stream<Path> pathStream = Files.walk(Paths.get("testData"))) {
+            return pathStream
+                    .filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String fileName = path.getFileName().toString();
+
+                        return fileName.endsWith(".ex") || fileName.endsWith(".exs");
+                    })
+                    .filter(path -> size == Size.ALL || fileSize(path) >= LARGE_SIZE)
+                    .sorted()
+                    .map(Corpus::source)
+                    .collect(Collectors.toList());
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    private static long fileSize(@NotNull Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    @NotNull
+    private static Source source(@NotNull Path path) {
+        try {
+            // PSI requires \n line separators
+            String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8).replace("\r\n", "\n");
+
+            return new Source(path.getFileName().toString(), text);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+}
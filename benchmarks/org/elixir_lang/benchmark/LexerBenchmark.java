@@ -0,0 +1,49 @@
+package org.elixir_lang.benchmark;
+
+import com.intellij.psi.tree.IElementType;
+import org.elixir_lang.ElixirLexer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Tokenizes the {@link Corpus} with the {@link ElixirLexer} used by the parser and the restartable one used for
+ * highlighting.
+ */
+@State(Scope.Thread)
+public class LexerBenchmark {
+    @Param({"ALL", "LARGE"})
+    public Corpus.Size size;
+
+    private List<Corpus.Source> sourceList;
+
+    @Setup
+    public void setUp() {
+        sourceList = Corpus.load(size);
+    }
+
+    @Benchmark
+    public void lex(Blackhole blackhole) {
+        lex(new ElixirLexer(), blackhole);
+    }
+
+    @Benchmark
+    public void lexRestartable(Blackhole blackhole) {
+        lex(ElixirLexer.restartable(), blackhole);
+    }
+
+    private void lex(ElixirLexer lexer, Blackhole blackhole) {
+        for (Corpus.Source source : sourceList) {
+            lexer.start(source.text);
+
+            IElementType tokenType;
+
+            while ((tokenType = lexer.getTokenType()) != null) {
+                blackhole.consume(tokenType);
+                blackhole.consume(lexer.getState());
+                lexer.advance();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.elixir_lang.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Builds the PSI tree for each file in the {@link Corpus} with the `ElixirParser`.
+ */
+@State(Scope.Thread)
+public class ParserBenchmark {
+    @Param({"ALL", "LARGE"})
+    public Corpus.Size size;
+
+    private ParsingEnvironment parsingEnvironment;
+    private List<Corpus.Source> sourceList;
+
+    @Setup
+    public void setUp() throws Exception {
+        parsingEnvironment = new ParsingEnvironment();
+        parsingEnvironment.start();
+        sourceList = Corpus.load(size);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        parsingEnvironment.stop();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (Corpus.Source source : sourceList) {
+            blackhole.consume(parsingEnvironment.parse(source));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.elixir_lang.benchmark;
+
+import com.intellij.psi.PsiFile;
+import org.elixir_lang.parser_definition.ParsingTestCase;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The mock application and project of the parsing tests, so that benchmarks can build PSI outside of JUnit.
+ */
+public class ParsingEnvironment extends ParsingTestCase {
+    public void start() throws Exception {
+        setUp();
+    }
+
+    public void stop() throws Exception {
+        tearDown();
+    }
+
+    /**
+     * @return a file whose whole tree has been built
+     */
+    @NotNull
+    public PsiFile parse(@NotNull Corpus.Source source) {
+        PsiFile file = createPsiFile(source.name, source.text);
+        // PSI is built lazily on first access to the tree
+        file.getNode().getFirstChildNode();
+
+        return file;
+    }
+}
@@ -0,0 +1,47 @@
+package org.elixir_lang.benchmark;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.elixir_lang.psi.impl.QuotableImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Quotes the already built PSI of each file in the {@link Corpus} with {@link QuotableImpl#quote(PsiFile)}.  Files
+ * with parse errors are skipped because they can't be quoted.
+ */
+@State(Scope.Thread)
+public class QuoterBenchmark {
+    @Param({"ALL", "LARGE"})
+    public Corpus.Size size;
+
+    private ParsingEnvironment parsingEnvironment;
+    private List<PsiFile> fileList;
+
+    @Setup
+    public void setUp() throws Exception {
+        parsingEnvironment = new ParsingEnvironment();
+        parsingEnvironment.start();
+        fileList = Corpus
+                .load(size)
+                .stream()
+                .map(parsingEnvironment::parse)
+                .filter(file -> !PsiTreeUtil.hasErrorElements(file))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        parsingEnvironment.stop();
+    }
+
+    @Benchmark
+    public void quote(Blackhole blackhole) {
+        for (PsiFile file : fileList) {
+            blackhole.consume(QuotableImpl.quote(file));
+        }
+    }
+}
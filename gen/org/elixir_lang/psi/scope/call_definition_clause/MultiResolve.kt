@@ -211,6 +211,11 @@ private constructor(
             true
         }
 
+    /**
+     * Only call definitions whose names start with [name] can be added to the resolve results.
+     */
+    override fun implicitImportsPrefix(): String? = name
+
     override fun keepProcessing(): Boolean = resolveResultOrderedSet.keepProcessing(incompleteCode)
     fun resolveResults(): List<VisitedElementSetResolveResult> = resolveResultOrderedSet.toList()
 
@@ -0,0 +1,77 @@
+package org.elixir_lang.psi.scope.module
+
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.util.Key
+import com.intellij.psi.PsiElement
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.stub.index.ModularName
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * The modulars with a given canonical name, as looked up in [ModularName], memoized per file of the alias being
+ * resolved.  Aliases in a module usually share a few `alias` calls, so all the `User` aliases in a file that are
+ * unaliased to `MyApp.Accounts.User` share one stub index lookup instead of each alias reference repeating it.
+ *
+ * The tables are dropped on any PSI modification because the modulars may be in other files.
+ */
+object ModularNameTable {
+    private val ALL_SCOPE: Key<CachedValue<ConcurrentMap<String, List<NamedElement>>>> =
+        Key.create("ModularNameTable.ALL_SCOPE")
+    private val RESOLVE_SCOPE: Key<CachedValue<ConcurrentMap<String, List<NamedElement>>>> =
+        Key.create("ModularNameTable.RESOLVE_SCOPE")
+
+    /**
+     * Modulars named [name] anywhere in the project or its libraries.
+     */
+    fun inAllScope(entrance: PsiElement, name: String): List<NamedElement> =
+        namedElements(ALL_SCOPE, entrance, name) {
+            val project = entrance.project
+            val modularList = mutableListOf<NamedElement>()
+
+            StubIndex
+                .getInstance()
+                .processElements(
+                    ModularName.KEY,
+                    name,
+                    project,
+                    GlobalSearchScope.allScope(project),
+                    NamedElement::class.java
+                ) { namedElement ->
+                    modularList.add(namedElement)
+
+                    true
+                }
+
+            modularList
+        }
+
+    /**
+     * Modulars named [name] that [lookup] finds in the scope of the module of [entrance].  The scope is the same for
+     * the whole file of [entrance], so the results are too.
+     */
+    fun inResolveScope(entrance: PsiElement, name: String, lookup: () -> List<NamedElement>): List<NamedElement> =
+        namedElements(RESOLVE_SCOPE, entrance, name, lookup)
+
+    private fun namedElements(
+        key: Key<CachedValue<ConcurrentMap<String, List<NamedElement>>>>,
+        entrance: PsiElement,
+        name: String,
+        lookup: () -> List<NamedElement>
+    ): List<NamedElement> =
+        if (DumbService.isDumb(entrance.project)) {
+            emptyList()
+        } else {
+            CachedValuesManager
+                .getCachedValue(entrance.containingFile, key) {
+                    CachedValueProvider.Result.create(ConcurrentHashMap(), PsiModificationTracker.MODIFICATION_COUNT)
+                }
+                .computeIfAbsent(name) { lookup() }
+        }
+}
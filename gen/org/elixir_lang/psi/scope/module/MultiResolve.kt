@@ -1,13 +1,9 @@
 package org.elixir_lang.psi.scope.module
 
-import com.intellij.openapi.project.DumbService
 import com.intellij.psi.*
-import com.intellij.psi.search.GlobalSearchScope
-import com.intellij.psi.stubs.StubIndex
 import com.intellij.psi.util.PsiTreeUtil
 import org.elixir_lang.Module.concat
 import org.elixir_lang.Module.split
-import org.elixir_lang.psi.NamedElement
 import org.elixir_lang.psi.call.Named
 import org.elixir_lang.psi.impl.ElixirPsiImplUtil.ENTRANCE
 import org.elixir_lang.psi.impl.call.finalArguments
@@ -18,7 +14,6 @@ import org.elixir_lang.psi.scope.Module
 import org.elixir_lang.psi.scope.ResolveResultOrderedSet
 import org.elixir_lang.psi.scope.VisitedElementSetResolveResult
 import org.elixir_lang.psi.scope.maxScope
-import org.elixir_lang.psi.stub.index.ModularName
 import org.elixir_lang.psi.visitedElementSet
 import org.elixir_lang.reference.module.UnaliasedName
 import java.util.*
@@ -103,21 +98,8 @@ class MultiResolve internal constructor(private val name: String, private val in
                                                              visitedElementSet: Set<PsiElement>) {
         val unaliasedName = unaliasedName(match, namePartList)
 
-        val project = match.project
-
-        if (!DumbService.isDumb(project)) {
-            StubIndex
-                    .getInstance()
-                    .processElements(
-                            ModularName.KEY,
-                            unaliasedName,
-                            project,
-                            GlobalSearchScope.allScope(project),
-                            NamedElement::class.java) {
-                resolveResultOrderedSet.add(it, unaliasedName, true, visitedElementSet)
-
-                true
-            }
+        ModularNameTable.inAllScope(match, unaliasedName).forEach {
+            resolveResultOrderedSet.add(it, unaliasedName, true, visitedElementSet)
         }
     }
 
@@ -2,6 +2,7 @@ package org.elixir_lang.psi.stub;
 
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
+import org.elixir_lang.psi.ArityInterval;
 import org.elixir_lang.psi.Definition;
 import org.elixir_lang.psi.ElixirMatchedAtUnqualifiedNoParenthesesCall;
 import org.elixir_lang.psi.stub.call.Deserialized;
@@ -21,7 +22,9 @@ public class MatchedAtUnqualifiedNoParenthesesCall extends Stub<ElixirMatchedAtU
             boolean hasDoBlockOrKeyword,
             @NotNull String name,
             @NotNull Set<String> canonicalNameSet,
-            @Nullable String implementedProtocolName
+            @Nullable String implementedProtocolName,
+            @Nullable ArityInterval callableArityInterval,
+            @NotNull Set<String> structFieldNameSet
     ) {
         super(
                 parent,
@@ -33,7 +36,9 @@ public class MatchedAtUnqualifiedNoParenthesesCall extends Stub<ElixirMatchedAtU
                 name,
                 canonicalNameSet,
                 Definition.MODULE_ATTRIBUTE,
-                implementedProtocolName
+                implementedProtocolName,
+                callableArityInterval,
+                structFieldNameSet
         );
     }
 
@@ -2,6 +2,7 @@ package org.elixir_lang.psi.stub;
 
 import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.stubs.StubElement;
+import org.elixir_lang.psi.ArityInterval;
 import org.elixir_lang.psi.ElixirMatchedQualifiedNoParenthesesCall;
 import org.elixir_lang.psi.stub.call.Deserialized;
 import org.elixir_lang.psi.stub.call.Stub;
@@ -27,7 +28,9 @@ public class MatchedQualifiedNoParenthesesCall extends Stub<ElixirMatchedQualifi
             boolean hasDoBlockOrKeyword,
             @NotNull String name,
             @NotNull Set<String> canonicalNameSet,
-            @Nullable String implementedProtocolName
+            @Nullable String implementedProtocolName,
+            @Nullable ArityInterval callableArityInterval,
+            @NotNull Set<String> structFieldNameSet
     ) {
         super(
                 parent,
@@ -38,7 +41,9 @@ public class MatchedQualifiedNoParenthesesCall extends Stub<ElixirMatchedQualifi
                 hasDoBlockOrKeyword,
                 name,
                 canonicalNameSet,
-                implementedProtocolName
+                implementedProtocolName,
+                callableArityInterval,
+                structFieldNameSet
         );
     }
 }
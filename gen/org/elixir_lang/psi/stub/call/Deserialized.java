@@ -5,6 +5,7 @@ import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.util.io.StringRef;
 import gnu.trove.THashSet;
+import org.elixir_lang.psi.ArityInterval;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -51,6 +52,10 @@ public class Deserialized {
     public final StringRef resolvedModuleName;
     @Nullable
     public final StringRef implementedProtocolName;
+    @Nullable
+    public final ArityInterval callableArityInterval;
+    @NotNull
+    public final Set<StringRef> structFieldNameSet;
 
     public Deserialized(@Nullable StringRef resolvedModuleName,
                         @Nullable StringRef resolvedFunctionName,
@@ -58,7 +63,9 @@ public class Deserialized {
                         boolean hasDoBlockOrKeyword,
                         @NotNull StringRef name,
                         @NotNull Set<StringRef> canonicalNameSet,
-                        @Nullable StringRef implementedProtocolName) {
+                        @Nullable StringRef implementedProtocolName,
+                        @Nullable ArityInterval callableArityInterval,
+                        @NotNull Set<StringRef> structFieldNameSet) {
         this.resolvedModuleName = resolvedModuleName;
         this.resolvedFunctionName = resolvedFunctionName;
         this.resolvedFinalArity = resolvedFinalArity;
@@ -66,6 +73,8 @@ public class Deserialized {
         this.name = name;
         this.canonicalNameSet = canonicalNameSet;
         this.implementedProtocolName = implementedProtocolName;
+        this.callableArityInterval = callableArityInterval;
+        this.structFieldNameSet = structFieldNameSet;
     }
 
     public <T extends Stubbic> Deserialized(@NotNull T stubbic) {
@@ -76,7 +85,9 @@ public class Deserialized {
                 stubbic.hasDoBlockOrKeyword(),
                 StringRef.fromNullableString(stubbic.getName()),
                 stringRefSet(stubbic.canonicalNameSet()),
-                StringRef.fromNullableString(stubbic.getImplementedProtocolName())
+                StringRef.fromNullableString(stubbic.getImplementedProtocolName()),
+                stubbic.getCallableArityInterval(),
+                stringRefSet(stubbic.getStructFieldNameSet())
         );
     }
 
@@ -104,6 +115,8 @@ public class Deserialized {
         StringRef name = deserializeName(stubInputStream);
         Set<StringRef> canonicalNameSet = deserializeCanonicalNameSet(stubInputStream);
         StringRef iplementedProtocolName = deserializeName(stubInputStream);
+        ArityInterval callableArityInterval = deserializeCallableArityInterval(stubInputStream);
+        Set<StringRef> structFieldNameSet = deserializeStructFieldNameSet(stubInputStream);
 
         assertGuard(stubInputStream, END);
 
@@ -114,15 +127,28 @@ public class Deserialized {
                 hasDoBlockOrKeyword,
                 name,
                 canonicalNameSet,
-                iplementedProtocolName
+                iplementedProtocolName,
+                callableArityInterval,
+                structFieldNameSet
         );
     }
 
+    @Nullable
+    private static ArityInterval deserializeCallableArityInterval(@NotNull StubInputStream stubInputStream)
+            throws IOException {
+        return readGuarded(stubInputStream, Deserialized::readArityInterval);
+    }
+
     private static Set<StringRef> deserializeCanonicalNameSet(@NotNull StubInputStream stubInputStream)
             throws IOException {
         return readGuarded(stubInputStream, Deserialized::readNameSet);
     }
 
+    private static Set<StringRef> deserializeStructFieldNameSet(@NotNull StubInputStream stubInputStream)
+            throws IOException {
+        return readGuarded(stubInputStream, Deserialized::readFieldNameSet);
+    }
+
     private static boolean deserializeHasDoBlockOrKeyword(@NotNull StubInputStream stubInputStream) throws IOException {
         return readGuarded(stubInputStream, StubInputStream::readBoolean);
     }
@@ -164,6 +190,39 @@ public class Deserialized {
         return read;
     }
 
+    @Nullable
+    private static ArityInterval readArityInterval(@NotNull StubInputStream stubInputStream) throws IOException {
+        ArityInterval arityInterval = null;
+
+        if (stubInputStream.readBoolean()) {
+            int minimum = stubInputStream.readVarInt();
+            Integer maximum = null;
+
+            if (stubInputStream.readBoolean()) {
+                maximum = stubInputStream.readVarInt();
+            }
+
+            arityInterval = new ArityInterval(minimum, maximum);
+        }
+
+        return arityInterval;
+    }
+
+    /**
+     * Unlike {@link #readNameSet(StubInputStream)}, large sizes are expected because Ecto schemas routinely have more
+     * than {@link #SUSPECT_NAME_SET_SIZE} fields.
+     */
+    private static Set<StringRef> readFieldNameSet(@NotNull StubInputStream dataStream) throws IOException {
+        int fieldNameSetSize = dataStream.readVarInt();
+        Set<StringRef> fieldNameSet = new THashSet<>(fieldNameSetSize);
+
+        for (int i = 0; i < fieldNameSetSize; i++) {
+            fieldNameSet.add(dataStream.readName());
+        }
+
+        return fieldNameSet;
+    }
+
     private static StringRef readGuardedName(@NotNull StubInputStream stubInputStream) throws IOException {
         return readGuarded(stubInputStream, StubInputStream::readName);
     }
@@ -280,10 +339,19 @@ public class Deserialized {
                     serializeName(guardedStubOutputStream);
                     serializeCanonicalNameSet(guardedStubOutputStream);
                     serializeImplementedProtocolName(guardedStubOutputStream);
+                    serializeCallableArityInterval(guardedStubOutputStream);
+                    serializeStructFieldNameSet(guardedStubOutputStream);
                 }
         );
     }
 
+    private void serializeCallableArityInterval(@NotNull StubOutputStream stubOutputStream) throws IOException {
+        writeGuarded(
+                stubOutputStream,
+                guardedStubOutputStream -> writeArityInterval(guardedStubOutputStream, callableArityInterval)
+        );
+    }
+
     private void serializeCanonicalNameSet(@NotNull StubOutputStream stubOutputStream) throws IOException {
         writeGuarded(
                 stubOutputStream,
@@ -291,6 +359,19 @@ public class Deserialized {
         );
     }
 
+    private void serializeStructFieldNameSet(@NotNull StubOutputStream stubOutputStream) throws IOException {
+        writeGuarded(
+                stubOutputStream,
+                guardedStubOutputStream -> {
+                    guardedStubOutputStream.writeVarInt(structFieldNameSet.size());
+
+                    for (StringRef fieldName : structFieldNameSet) {
+                        guardedStubOutputStream.writeName(StringRef.toString(fieldName));
+                    }
+                }
+        );
+    }
+
     private void serializeHasDoBlockOrKeyword(@NotNull StubOutputStream stubOutputStream) throws IOException {
         writeGuarded(
                 stubOutputStream,
@@ -321,6 +402,22 @@ public class Deserialized {
         writeGuardedName(stubOutputStream, implementedProtocolName);
     }
 
+    private static void writeArityInterval(@NotNull StubOutputStream stubOutputStream,
+                                           @Nullable ArityInterval arityInterval) throws IOException {
+        stubOutputStream.writeBoolean(arityInterval != null);
+
+        if (arityInterval != null) {
+            stubOutputStream.writeVarInt(arityInterval.getMinimum());
+
+            Integer maximum = arityInterval.getMaximum();
+            stubOutputStream.writeBoolean(maximum != null);
+
+            if (maximum != null) {
+                stubOutputStream.writeVarInt(maximum);
+            }
+        }
+    }
+
     private void writeNameSet(@NotNull StubOutputStream stubOutputStream, @NotNull Set<StringRef> nameSet) throws IOException {
         writeGuarded(
                 stubOutputStream,
@@ -6,6 +6,7 @@ import com.intellij.psi.stubs.NamedStubBase;
 import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.containers.SmartHashSet;
 import com.intellij.util.io.StringRef;
+import org.elixir_lang.psi.ArityInterval;
 import org.elixir_lang.psi.Definition;
 import org.elixir_lang.psi.call.Call;
 import org.jetbrains.annotations.NotNull;
@@ -51,6 +52,10 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
     private final Definition definition;
     @Nullable
     private final StringRef implementedProtocolName;
+    @Nullable
+    private final ArityInterval callableArityInterval;
+    @NotNull
+    private final Set<StringRef> structFieldNameSet;
 
     /*
      * Constructors
@@ -64,7 +69,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 boolean hasDoBlockOrKeyword,
                 @NotNull String name,
                 @NotNull Set<String> canonicalNameSet,
-                @Nullable String implementedProtocolName) {
+                @Nullable String implementedProtocolName,
+                @Nullable ArityInterval callableArityInterval,
+                @NotNull Set<String> structFieldNameSet) {
         this(
                 parent,
                 elementType,
@@ -74,7 +81,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 hasDoBlockOrKeyword,
                 StringRef.fromString(name),
                 setStringToSetStringRef(canonicalNameSet),
-                StringRef.fromString(implementedProtocolName)
+                StringRef.fromString(implementedProtocolName),
+                callableArityInterval,
+                setStringToSetStringRef(structFieldNameSet)
         );
     }
 
@@ -87,7 +96,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                  @NotNull String name,
                  @NotNull Set<String> canonicalNameSet,
                  @Nullable Definition definition,
-                 @Nullable String implementedProtocolName) {
+                 @Nullable String implementedProtocolName,
+                 @Nullable ArityInterval callableArityInterval,
+                 @NotNull Set<String> structFieldNameSet) {
         this(
                 parent,
                 elementType,
@@ -98,7 +109,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 StringRef.fromString(name),
                 setStringToSetStringRef(canonicalNameSet),
                 definition,
-                StringRef.fromString(implementedProtocolName)
+                StringRef.fromString(implementedProtocolName),
+                callableArityInterval,
+                setStringToSetStringRef(structFieldNameSet)
         );
     }
 
@@ -114,7 +127,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                 deserialized.hasDoBlockOrKeyword,
                 deserialized.name,
                 deserialized.canonicalNameSet,
-                deserialized.implementedProtocolName
+                deserialized.implementedProtocolName,
+                deserialized.callableArityInterval,
+                deserialized.structFieldNameSet
         );
     }
 
@@ -126,7 +141,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                  boolean hasDoBlockOrKeyword,
                  @NotNull StringRef name,
                  @NotNull Set<StringRef> canonicalNameSet,
-                 @Nullable StringRef implementedProtocolName) {
+                 @Nullable StringRef implementedProtocolName,
+                 @Nullable ArityInterval callableArityInterval,
+                 @NotNull Set<StringRef> structFieldNameSet) {
         this(
                 parent,
                 elementType,
@@ -142,7 +159,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                         resolvedFinalArity,
                         hasDoBlockOrKeyword
                 ),
-                implementedProtocolName
+                implementedProtocolName,
+                callableArityInterval,
+                structFieldNameSet
         );
     }
 
@@ -155,7 +174,9 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
                  @NotNull StringRef name,
                  @NotNull Set<StringRef> canonicalNameSet,
                  @Nullable Definition definition,
-                 @Nullable StringRef implementedProtocolName) {
+                 @Nullable StringRef implementedProtocolName,
+                 @Nullable ArityInterval callableArityInterval,
+                 @NotNull Set<StringRef> structFieldNameSet) {
         super(parent, elementType, name);
         this.canonicalNameSet = canonicalNameSet;
         this.hasDoBlockOrKeyword = hasDoBlockOrKeyword;
@@ -164,6 +185,8 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
         this.resolvedModuleName = resolvedModuleName;
         this.definition = definition;
         this.implementedProtocolName = implementedProtocolName;
+        this.callableArityInterval = callableArityInterval;
+        this.structFieldNameSet = structFieldNameSet;
     }
 
     /*
@@ -232,4 +255,16 @@ public class Stub<T extends org.elixir_lang.psi.call.StubBased> extends NamedStu
     public String getImplementedProtocolName() {
         return StringRef.toString(implementedProtocolName);
     }
+
+    @Nullable
+    @Override
+    public ArityInterval getCallableArityInterval() {
+        return callableArityInterval;
+    }
+
+    @NotNull
+    @Override
+    public Set<String> getStructFieldNameSet() {
+        return setStringRefToSetString(structFieldNameSet);
+    }
 }
@@ -1,6 +1,7 @@
 package org.elixir_lang.psi.stub.call
 
 import com.intellij.psi.PsiReference
+import org.elixir_lang.psi.ArityInterval
 import org.elixir_lang.psi.Definition
 import org.elixir_lang.psi.call.Call
 
@@ -13,6 +14,18 @@ interface Stubbic {
      */
     val implementedProtocolName: String?
 
+    /**
+     * If this is a call definition clause or `@callback`, the arities with which it can be called, including those
+     * produced by default arguments.  Used to index [org.elixir_lang.psi.stub.index.CallableNameArity].
+     */
+    val callableArityInterval: ArityInterval?
+
+    /**
+     * If this is a `defmodule` that calls `defstruct` or an Ecto `schema` or `embedded_schema`, the names of the struct's
+     * fields.  Used to index [org.elixir_lang.psi.stub.index.StructModularName].
+     */
+    val structFieldNameSet: Set<String>
+
     /**
      * These names do not depend on aliases or nested modules.
      *
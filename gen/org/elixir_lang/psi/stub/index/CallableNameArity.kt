@@ -0,0 +1,46 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.Arity
+import org.elixir_lang.Name
+import org.elixir_lang.psi.ArityInterval
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Keys: `name/arity` for each arity a call definition clause or `@callback` can be called with, so default arguments
+ * produce one key per arity.  Open intervals from `unquote_splicing` are keyed once as `name/minimum..`.
+ * Values: The call definition clause or `@callback`.
+ *
+ * Used to resolve calls that can't be resolved in scope with exact key lookups instead of scanning all [AllName] keys.
+ */
+class CallableNameArity : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.callable.name_arity")
+
+        /**
+         * Keys under which a callable named [name] that can be called with [arityInterval] is indexed.
+         */
+        fun keys(name: Name, arityInterval: ArityInterval): List<String> =
+            arityInterval.maximum?.let { maximum ->
+                (arityInterval.minimum..maximum).map { arity -> key(name, arity) }
+            } ?: listOf(openKey(name, arityInterval.minimum))
+
+        /**
+         * Keys to look up to find all callables named [name] that can be called with [arity]: the exact key and the
+         * open keys for all minimums up to [arity].
+         */
+        fun lookupKeys(name: Name, arity: Arity): List<String> =
+            listOf(key(name, arity)) + (0..arity).map { minimum -> openKey(name, minimum) }
+
+        private fun key(name: Name, arity: Arity): String = "$name/$arity"
+        private fun openKey(name: Name, minimum: Arity): String = "$name/$minimum.."
+    }
+}
+
+private const val VERSION = 0
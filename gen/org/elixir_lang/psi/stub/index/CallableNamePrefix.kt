@@ -0,0 +1,40 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.Name
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Keys: Each prefix of a call definition clause or `@callback` name up to [PREFIX_LENGTH] characters long.
+ * Values: The call definition clause or `@callback`.
+ *
+ * Used to complete calls by looking up the single bucket for the typed prefix instead of scanning all [AllName] keys
+ * with `startsWith`.
+ */
+class CallableNamePrefix : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.callable.name_prefix")
+
+        /**
+         * Keys under which a callable named [name] is indexed.
+         */
+        fun keys(name: Name): List<String> = (1..minOf(name.length, PREFIX_LENGTH)).map { name.substring(0, it) }
+
+        /**
+         * The key whose values are a superset of the callables whose names start with [prefix].  Values still need
+         * to be filtered with `startsWith` when [prefix] is longer than [PREFIX_LENGTH].
+         *
+         * @return `null` if [prefix] is empty as all callables would match.
+         */
+        fun key(prefix: String): String? = prefix.take(PREFIX_LENGTH).takeIf { it.isNotEmpty() }
+    }
+}
+
+private const val PREFIX_LENGTH = 3
+private const val VERSION = 0
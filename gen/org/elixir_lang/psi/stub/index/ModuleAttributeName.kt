@@ -0,0 +1,58 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Keys: `modular @name` for the canonical name of the enclosing modular and the module attribute name, and
+ * `modular @prefix*` for each prefix of the name up to [PREFIX_LENGTH] characters long after the `@`.
+ * Values: The module attribute declaration directly in the modular.
+ *
+ * Used to resolve and complete module attributes declared in a specific module with key lookups instead of scanning
+ * all [QuoteModuleAttributeName] keys with `startsWith`.
+ */
+class ModuleAttributeName : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.module_attribute.name")
+
+        /**
+         * Keys under which a module attribute named [name] declared in [modularName] is indexed.
+         */
+        fun keys(modularName: String, name: String): List<String> =
+            listOf(key(modularName, name)) + prefixes(name).map { "$modularName $it" }
+
+        /**
+         * The key of the module attributes named exactly [name] declared in [modularName].
+         */
+        fun key(modularName: String, name: String): String = "$modularName $name"
+
+        /**
+         * The key whose values are a superset of the module attributes declared in [modularName] whose names start
+         * with [prefix].  Values still need to be filtered with `startsWith` when [prefix] is longer than
+         * [PREFIX_LENGTH] after the `@`.
+         */
+        fun prefixKey(modularName: String, prefix: String): String = "$modularName ${prefix(prefix)}"
+
+        /**
+         * Each prefix of [name] up to [PREFIX_LENGTH] characters after the `@`, suffixed with [PREFIX_SUFFIX], so that
+         * a prefix can't collide with the exact name of a shorter module attribute.
+         */
+        internal fun prefixes(name: String): List<String> =
+            (1..minOf(name.length, PREFIX_LENGTH + 1)).map { prefix(name.substring(0, it)) }
+
+        /**
+         * The indexed prefix to look up for [prefix]
+         */
+        internal fun prefix(prefix: String): String = "${prefix.take(PREFIX_LENGTH + 1)}$PREFIX_SUFFIX"
+    }
+}
+
+private const val PREFIX_SUFFIX = "*"
+private const val PREFIX_LENGTH = 3
+private const val VERSION = 0
@@ -4,6 +4,11 @@ import com.intellij.psi.stubs.StringStubIndexExtension
 import com.intellij.psi.stubs.StubIndexKey
 import org.elixir_lang.psi.NamedElement
 
+/**
+ * Keys: The name of a module attribute declared in a `quote`, and the same prefixes as [ModuleAttributeName] without
+ * the modular.
+ * Values: The module attribute declaration.
+ */
 class QuoteModuleAttributeName : StringStubIndexExtension<NamedElement>() {
     override fun getVersion(): Int = super.getVersion() + VERSION
 
@@ -12,7 +17,17 @@ class QuoteModuleAttributeName : StringStubIndexExtension<NamedElement>() {
     companion object {
         @JvmField
         val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.quote.module_attribute.name")
+
+        /**
+         * Keys under which a module attribute named [name] declared in a `quote` is indexed.
+         */
+        fun keys(name: String): List<String> = listOf(name) + ModuleAttributeName.prefixes(name)
+
+        /**
+         * The key whose values are a superset of the quoted module attributes whose names start with [prefix].
+         */
+        fun prefixKey(prefix: String): String = ModuleAttributeName.prefix(prefix)
     }
 }
 
-private const val VERSION = 0
+private const val VERSION = 1
@@ -0,0 +1,25 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndexKey
+import org.elixir_lang.psi.NamedElement
+
+/**
+ * Keys: The canonical name of a `defmodule` that defines a struct.
+ * Values: The `defmodule`, whose stub has the names of the struct's fields in
+ *   [org.elixir_lang.psi.stub.call.Stubbic.structFieldNameSet].
+ *
+ * Used to complete the keys of `%Struct{}` without parsing the file that defines the struct.
+ */
+class StructModularName : StringStubIndexExtension<NamedElement>() {
+    override fun getVersion(): Int = super.getVersion() + VERSION
+
+    override fun getKey(): StubIndexKey<String, NamedElement> = KEY
+
+    companion object {
+        @JvmField
+        val KEY = StubIndexKey.createIndexKey<String, NamedElement>("elixir.struct.modular.name")
+    }
+}
+
+private const val VERSION = 0
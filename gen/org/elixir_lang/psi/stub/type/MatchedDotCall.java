@@ -42,7 +42,9 @@ public class MatchedDotCall extends Stub<org.elixir_lang.psi.stub.MatchedDotCall
                 psi.hasDoBlockOrKeyword(),
                 StringUtil.notNullize(psi.getName(), "?"),
                 psi.canonicalNameSet(),
-                psi.implementedProtocolName()
+                psi.implementedProtocolName(),
+                callableArityInterval(psi),
+                structFieldNameSet(psi)
         );
     }
 
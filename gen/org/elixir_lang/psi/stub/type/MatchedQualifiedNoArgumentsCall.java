@@ -41,7 +41,9 @@ public class MatchedQualifiedNoArgumentsCall extends Stub<org.elixir_lang.psi.st
                 psi.hasDoBlockOrKeyword(),
                 StringUtil.notNullize(psi.getName(), "?"),
                 psi.canonicalNameSet(),
-                psi.implementedProtocolName()
+                psi.implementedProtocolName(),
+                callableArityInterval(psi),
+                structFieldNameSet(psi)
         );
     }
 
@@ -40,7 +40,9 @@ public class MatchedQualifiedParenthesesCall extends Stub<org.elixir_lang.psi.st
                 psi.hasDoBlockOrKeyword(),
                 StringUtil.notNullize(psi.getName(), "?"),
                 psi.canonicalNameSet(),
-                psi.implementedProtocolName()
+                psi.implementedProtocolName(),
+                callableArityInterval(psi),
+                structFieldNameSet(psi)
         );
     }
 
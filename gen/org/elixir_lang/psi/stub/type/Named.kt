@@ -3,6 +3,7 @@ package org.elixir_lang.psi.stub.type
 import com.intellij.psi.PsiNameIdentifierOwner
 import com.intellij.psi.stubs.IndexSink
 import com.intellij.psi.stubs.NamedStubBase
+import com.intellij.psi.stubs.StubElement
 import org.elixir_lang.psi.Definition
 import org.elixir_lang.psi.Implementation.protocolName
 import org.elixir_lang.psi.NamedElement
@@ -50,12 +51,30 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
                 sink.occurrence<NamedElement, String>(AllName.KEY, name)
             }
 
+            stubbic.callableArityInterval?.let { arityInterval ->
+                nameSet.forEach { name ->
+                    CallableNameArity.keys(name, arityInterval).forEach { key ->
+                        sink.occurrence<NamedElement, String>(CallableNameArity.KEY, key)
+                    }
+
+                    CallableNamePrefix.keys(name).forEach { key ->
+                        sink.occurrence<NamedElement, String>(CallableNamePrefix.KEY, key)
+                    }
+                }
+            }
+
             stubbic.definition?.let { definition ->
                 if (definition.type == Definition.Type.MODULAR) {
                     nameSet.forEach { name ->
                         sink.occurrence<NamedElement, String>(ModularName.KEY, name)
                     }
 
+                    if (stubbic.structFieldNameSet.isNotEmpty()) {
+                        nameSet.forEach { name ->
+                            sink.occurrence<NamedElement, String>(StructModularName.KEY, name)
+                        }
+                    }
+
                     if (definition == Definition.IMPLEMENTATION) {
                         stubbic.implementedProtocolName?.let { implementedProtocolName ->
                             sink.occurrence<NamedElement, String>(ImplementedProtocolName.KEY, implementedProtocolName)
@@ -63,7 +82,9 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
                     }
                 } else if (definition == Definition.MODULE_ATTRIBUTE) {
                     nameSet.forEach { name ->
-                        sink.occurrence<NamedElement, String>(QuoteModuleAttributeName.KEY,  name)
+                        QuoteModuleAttributeName.keys(name).forEach { key ->
+                            sink.occurrence<NamedElement, String>(QuoteModuleAttributeName.KEY, key)
+                        }
                     }
                 } else if (definition == Definition.VARIABLE) {
                     nameSet.forEach { name ->
@@ -71,6 +92,28 @@ abstract class Named<S : NamedStubBase<T>, T : PsiNameIdentifierOwner>(@NonNls d
                     }
                 }
             }
+
+            indexModuleAttribute(stubbic, sink)
+        }
+
+        /**
+         * Indexes module attribute declarations, which are named `@name`, directly in a modular under the canonical
+         * names of the modular in [ModuleAttributeName].  Declarations in a `quote` have a call definition clause, such
+         * as `defmacro __using__`, as their parent stub instead, and don't declare the attribute in the modular.
+         */
+        private fun <T : Stubbic> indexModuleAttribute(stubbic: T, sink: IndexSink) {
+            val name = stubbic.name
+
+            if (name != null && name.startsWith("@") && stubbic is StubElement<*>) {
+                (stubbic.parentStub as? Stubbic)
+                    ?.takeIf { it.definition?.type == Definition.Type.MODULAR }
+                    ?.canonicalNameSet()
+                    ?.forEach { modularName ->
+                        ModuleAttributeName.keys(modularName, name).forEach { key ->
+                            sink.occurrence<NamedElement, String>(ModuleAttributeName.KEY, key)
+                        }
+                    }
+            }
         }
     }
 }
@@ -50,7 +50,9 @@ public class UnmatchedUnqualifiedNoArgumentsCall extends Stub<org.elixir_lang.ps
                 StringUtil.notNullize(psi.getName(), "?"),
                 psi.canonicalNameSet(),
                 definition(psi),
-                psi.implementedProtocolName()
+                psi.implementedProtocolName(),
+                callableArityInterval(psi),
+                structFieldNameSet(psi)
         );
     }
 
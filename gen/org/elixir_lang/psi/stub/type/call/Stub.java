@@ -3,14 +3,18 @@ package org.elixir_lang.psi.stub.type.call;
 import com.intellij.lang.ASTNode;
 import com.intellij.psi.ResolveState;
 import com.intellij.psi.stubs.StubOutputStream;
+import org.elixir_lang.NameArityInterval;
 import org.elixir_lang.module.PutAttribute;
 import org.elixir_lang.module.RegisterAttribute;
+import org.elixir_lang.psi.ArityInterval;
+import org.elixir_lang.psi.AtUnqualifiedNoParenthesesCall;
 import org.elixir_lang.psi.CallDefinitionClause;
 import org.elixir_lang.psi.Implementation;
 import org.elixir_lang.psi.Module;
 import org.elixir_lang.psi.ModuleAttribute;
 import org.elixir_lang.psi.Protocol;
 import org.elixir_lang.psi.QuoteMacro;
+import org.elixir_lang.psi.StructFields;
 import org.elixir_lang.psi.Variable;
 import org.elixir_lang.psi.call.Call;
 import org.elixir_lang.psi.call.StubBased;
@@ -19,8 +23,11 @@ import org.elixir_lang.structure_view.element.CallDefinitionHead;
 import org.elixir_lang.structure_view.element.CallDefinitionSpecification;
 import org.elixir_lang.structure_view.element.Callback;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 
 import static org.elixir_lang.psi.CallDefinitionClause.enclosingModularMacroCall;
 
@@ -38,6 +45,63 @@ public abstract class Stub<Stub extends org.elixir_lang.psi.stub.call.Stub<Psi>,
         return Implementation.is(call) || Module.is(call) || Protocol.is(call);
     }
 
+    /**
+     * The arities with which the call definition clause or {@code @callback} can be called, so that they can be
+     * indexed in {@link org.elixir_lang.psi.stub.index.CallableNameArity}.
+     *
+     * @return {@code null} if {@code call} is neither a call definition clause nor a callback.
+     */
+    @Nullable
+    protected static ArityInterval callableArityInterval(@NotNull Call call) {
+        String name = call.getName();
+        NameArityInterval nameArityInterval = null;
+
+        if (name != null) {
+            if (CallDefinitionClause.is(call)) {
+                nameArityInterval =
+                        CallDefinitionClause.nameArityInterval(call, CallDefinitionClause.resolveState(call, name));
+            } else if (Callback.Companion.is(call)) {
+                Call headCall = Callback.Companion.headCall((AtUnqualifiedNoParenthesesCall<?>) call);
+
+                if (headCall != null) {
+                    nameArityInterval = CallDefinitionHead.Companion.nameArityInterval(
+                            headCall,
+                            CallDefinitionClause.resolveState(call, name)
+                    );
+                }
+            }
+        }
+
+        ArityInterval arityInterval;
+
+        if (nameArityInterval != null) {
+            arityInterval = nameArityInterval.getArityInterval();
+        } else {
+            arityInterval = null;
+        }
+
+        return arityInterval;
+    }
+
+    /**
+     * The fields of the struct defined in the {@code defmodule}, so that they can be read from the stub through
+     * {@link org.elixir_lang.psi.stub.index.StructModularName} without parsing the defining file.
+     *
+     * @return empty if {@code call} is not a {@code defmodule} or it does not define a struct.
+     */
+    @NotNull
+    protected static Set<String> structFieldNameSet(@NotNull Call call) {
+        Set<String> structFieldNameSet;
+
+        if (Module.is(call)) {
+            structFieldNameSet = StructFields.nameSet(call);
+        } else {
+            structFieldNameSet = Collections.emptySet();
+        }
+
+        return structFieldNameSet;
+    }
+
     private boolean hasCanonicalNames(Call call) {
         boolean hasCanonicalNames = false;
 
@@ -72,7 +136,30 @@ public abstract class Stub<Stub extends org.elixir_lang.psi.stub.call.Stub<Psi>,
     }
 
     private boolean isNameable(Call call) {
-        return isEnclosableByModular(call) || isDelegationCallDefinitionHead(call) || isModular(call) || isQuoted(call);
+        return isEnclosableByModular(call) || isDelegationCallDefinitionHead(call) || isModular(call) || isQuoted(call) ||
+                isModuleAttributeDeclaredInModular(call);
+    }
+
+    /**
+     * Module attribute declarations directly in a modular are stubbed, so that they can be indexed in
+     * {@link org.elixir_lang.psi.stub.index.ModuleAttributeName}.  Non-referencing module attributes, such as
+     * {@code @doc} and {@code @spec}, are skipped because they are never resolved to.
+     */
+    private boolean isModuleAttributeDeclaredInModular(Call call) {
+        boolean isModuleAttributeDeclaredInModular;
+
+        if (ModuleAttribute.isDeclaration(call) &&
+                !org.elixir_lang.reference.ModuleAttribute.Companion.isNonReferencing(
+                        ((AtUnqualifiedNoParenthesesCall<?>) call).getAtIdentifier()
+                )) {
+            Call enclosingModularMacroCall = enclosingModularMacroCall(call);
+
+            isModuleAttributeDeclaredInModular = enclosingModularMacroCall != null && isModular(enclosingModularMacroCall);
+        } else {
+            isModuleAttributeDeclaredInModular = false;
+        }
+
+        return isModuleAttributeDeclaredInModular;
     }
 
     private boolean isQuoted(Call call) {
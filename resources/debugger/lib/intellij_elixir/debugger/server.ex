@@ -66,8 +66,20 @@ defmodule IntelliJElixir.Debugger.Server do
       )
   end
 
+  # `snapshot_key_by_pid` is the `{init, status, info}` of each process in the last snapshot sent to `attached`, so that
+  # only the processes that changed since are sent with their stacks on the next breakpoint.
   defstruct attached: nil,
-            evaluate_meta_pid_to_froms: %{}
+            evaluate_meta_pid_to_froms: %{},
+            lazy: nil,
+            snapshot_key_by_pid: %{}
+
+  # Lists, maps and tuples with more elements than `@page_size` and binaries with more bytes than
+  # `@binary_prefix_size` are sent to the IDE as `{@summary, type, size, first_elements, reference}`, so that a frame
+  # holding a huge term doesn't send the whole term in every snapshot.  The rest of the elements are paged in with
+  # `{:fetch_children, reference, offset, limit}` when the IDE expands the summary.
+  @summary :"$intellij_elixir_summary"
+  @page_size 100
+  @binary_prefix_size 1024
 
   # Functions
 
@@ -93,12 +105,14 @@ defmodule IntelliJElixir.Debugger.Server do
   def handle_call(:attach, {pid, _ref}, state = %__MODULE__{attached: nil}) when is_pid(pid) do
     :int.auto_attach([:break], {__MODULE__, :breakpoint_reached, []})
 
-    {:reply, GenServer.call(IntelliJElixir.Debugged, :continue), %__MODULE__{state | attached: pid}}
+    {:reply, GenServer.call(IntelliJElixir.Debugged, :continue),
+     %__MODULE__{state | attached: pid, snapshot_key_by_pid: %{}}}
   end
 
   def handle_call(
-        {:interpret, %{sdk_paths: sdk_paths, reject_elixir_module_name_patterns: elixir_module_name_patterns}},
-        _from,
+        {:interpret,
+         options = %{sdk_paths: sdk_paths, reject_elixir_module_name_patterns: elixir_module_name_patterns}},
+        {pid, _ref},
         state = %__MODULE__{}
       )
       when is_list(sdk_paths) and is_list(elixir_module_name_patterns) do
@@ -106,39 +120,35 @@ defmodule IntelliJElixir.Debugger.Server do
 
     regex = erlang_module_name_patterns_to_regex(erlang_module_name_patterns)
 
-    code_absolute_paths =
-      :code.get_path()
-      |> Stream.reject(&(&1 == '.'))
-      |> Stream.map(&to_string/1)
-      |> Stream.map(&Path.absname/1)
-      |> Enum.sort()
-
     sdk_absolute_path_set =
       sdk_paths
       |> Stream.map(&Path.absname/1)
       |> MapSet.new()
 
-    Enum.each(code_absolute_paths, fn code_absolute_path ->
-      message = [:blue, "Interpreting modules under ", :magenta, code_absolute_path, :blue, "..."]
-
-      if MapSet.member?(sdk_absolute_path_set, code_absolute_path) do
-        [message, "  ...", :yellow, "skipped"]
-        |> IO.ANSI.format()
-        |> IO.puts()
-      else
-        message
-        |> IO.ANSI.format()
-        |> IO.puts()
+    if Map.get(options, :lazy, false) do
+      [:blue, "Interpreting modules lazily: only modules with breakpoints or stepped into will be interpreted"]
+      |> IO.ANSI.format()
+      |> IO.puts()
 
-        interpret_modules_in(code_absolute_path, regex)
+      {:reply, :ok, %__MODULE__{state | lazy: %{reject_regex: regex, sdk_absolute_path_set: sdk_absolute_path_set}}}
+    else
+      # Interpreting every module can take longer than the IDE's call timeout, so reply now and interpret outside the
+      # server.  The IDE knows the batch is over when it receives `:interpreted_modules` after the `:interpreted_module`
+      # for each module.
+      Task.start(fn ->
+        try do
+          interpret_code_paths(sdk_absolute_path_set, regex, pid)
+        after
+          GenServer.cast(pid, :interpreted_modules)
+        end
+      end)
 
-        [:blue, "  ...", :green, "completed"]
-        |> IO.ANSI.format()
-        |> IO.puts()
-      end
-    end)
+      {:reply, :ok, %__MODULE__{state | lazy: nil}}
+    end
+  end
 
-    {:reply, :ok, state}
+  def handle_call({:interpret, module}, _from, state = %__MODULE__{attached: attached}) when is_atom(module) do
+    {:reply, time_interpret(module, attached), state}
   end
 
   def handle_call(:interpreted, _from, state = %__MODULE__{}) do
@@ -161,18 +171,37 @@ defmodule IntelliJElixir.Debugger.Server do
     {:reply, :int.nn(module), state}
   end
 
-  def handle_call({:set_breakpoint, module, line}, _from, state = %__MODULE__{})
+  def handle_call({:set_breakpoint, module, line}, _from, state = %__MODULE__{attached: attached})
       when is_atom(module) and is_integer(line) do
-    unless module in :int.interpreted(), do: :int.ni(module)
+    {:reply, set_breakpoint(module, line, attached), state}
+  end
 
-    {:reply, :int.break(module, line), state}
+  # Replies with the result for each `{module, line}` in order, so that the IDE can set all its breakpoints in one call
+  def handle_call({:set_breakpoints, module_lines}, _from, state = %__MODULE__{attached: attached})
+      when is_list(module_lines) do
+    {:reply, Enum.map(module_lines, fn {module, line} -> set_breakpoint(module, line, attached) end), state}
   end
 
   def handle_call({:remove_breakpoint, module, line}, _from, state) when is_atom(module) and is_integer(line) do
     {:reply, :int.delete_break(module, line), state}
   end
 
-  def handle_call({:step_into, pid}, _from, state) when is_pid(pid) do
+  def handle_call({:remove_breakpoints, module_lines}, _from, state) when is_list(module_lines) do
+    {:reply, Enum.map(module_lines, fn {module, line} -> :int.delete_break(module, line) end), state}
+  end
+
+  def handle_call({:step_into, pid}, _from, state = %__MODULE__{lazy: nil}) when is_pid(pid) do
+    {:reply, :int.step(pid), state}
+  end
+
+  # `:int.step/1` only steps into calls to interpreted modules, so interpret the modules called on the current line
+  # first
+  def handle_call({:step_into, pid}, _from, state = %__MODULE__{attached: attached, lazy: lazy}) when is_pid(pid) do
+    pid
+    |> remote_call_modules_at_break()
+    |> Stream.filter(&lazily_interpretable?(&1, lazy))
+    |> Enum.each(&time_interpret(&1, attached))
+
     {:reply, :int.step(pid), state}
   end
 
@@ -188,6 +217,26 @@ defmodule IntelliJElixir.Debugger.Server do
     {:reply, :int.continue(pid), state}
   end
 
+  def handle_call({:fetch_children, reference = {pid, level, [name | indices]}, offset, limit}, _from, state)
+      when is_pid(pid) and is_integer(level) and is_atom(name) and is_list(indices) and is_integer(offset) and
+             offset >= 0 and is_integer(limit) and limit >= 0 do
+    reply =
+      with {:ok, meta_pid} <- :dbg_iserver.safe_call({:get_meta, pid}),
+           {:ok, term} <- meta_pid |> bindings(level) |> Keyword.fetch(name) do
+        elements =
+          indices
+          |> Enum.reduce(term, &child(&2, &1))
+          |> children(offset, limit)
+
+        {:ok, summarize_elements(elements, offset, reference)}
+      else
+        :error -> {:error, :unbound}
+        error -> error
+      end
+
+    {:reply, reply, state}
+  end
+
   def handle_call(:stop, _from, state = %__MODULE__{}) do
     {:stop, :normal, :ok, state}
   end
@@ -307,10 +356,21 @@ defmodule IntelliJElixir.Debugger.Server do
 
   @impl GenServer
 
-  def handle_cast({:breakpoint_reached, pid}, state = %__MODULE__{attached: attached}) when is_pid(attached) do
-    GenServer.cast(attached, {:breakpoint_reached, pid, snapshot_with_stacks()})
+  def handle_cast(
+        {:breakpoint_reached, pid},
+        state = %__MODULE__{attached: attached, snapshot_key_by_pid: previous_snapshot_key_by_pid}
+      )
+      when is_pid(attached) do
+    {changed_snapshots, snapshot_key_by_pid} = changed_snapshots_with_stacks(pid, previous_snapshot_key_by_pid)
+
+    exited_pids =
+      previous_snapshot_key_by_pid
+      |> Map.keys()
+      |> Enum.reject(&Map.has_key?(snapshot_key_by_pid, &1))
 
-    {:noreply, state}
+    GenServer.cast(attached, {:breakpoint_reached, pid, changed_snapshots, exited_pids})
+
+    {:noreply, %__MODULE__{state | snapshot_key_by_pid: snapshot_key_by_pid}}
   end
 
   @impl GenServer
@@ -333,7 +393,7 @@ defmodule IntelliJElixir.Debugger.Server do
     |> IO.ANSI.format()
     |> IO.puts()
 
-    {:noreply, %__MODULE__{state | attached: nil}}
+    {:noreply, %__MODULE__{state | attached: nil, snapshot_key_by_pid: %{}}}
   end
 
   ## Private Functions
@@ -342,6 +402,18 @@ defmodule IntelliJElixir.Debugger.Server do
     :int.meta(meta_pid, :bindings, level)
   end
 
+  defp child(list, index) when is_list(list), do: Enum.at(list, index)
+  defp child(map, index) when is_map(map), do: map |> :maps.to_list() |> Enum.at(index)
+  defp child(tuple, index) when is_tuple(tuple), do: elem(tuple, index)
+
+  defp children(list, offset, limit) when is_list(list), do: Enum.slice(list, offset, limit)
+  defp children(map, offset, limit) when is_map(map), do: map |> :maps.to_list() |> Enum.slice(offset, limit)
+  defp children(tuple, offset, limit) when is_tuple(tuple), do: tuple |> Tuple.to_list() |> Enum.slice(offset, limit)
+  defp children(_, _, _), do: []
+
+  defp child_reference(nil, _), do: nil
+  defp child_reference({pid, level, path}, index), do: {pid, level, path ++ [index]}
+
   if Version.compare(System.version(), "1.10.0") == :lt do
     defp counter(elixir_variable_tuples) when is_list(elixir_variable_tuples) do
       Enum.into(elixir_variable_tuples, %{}, fn {elixir_variable_name, counter, _} ->
@@ -377,11 +449,40 @@ defmodule IntelliJElixir.Debugger.Server do
     Regex.compile!("^(#{unpinned_pattern})$")
   end
 
-  defp interpret_modules_in(paths, reject_regex) when is_list(paths) do
-    Enum.each(paths, &interpret_modules_in(&1, reject_regex))
+  defp interpret_code_paths(sdk_absolute_path_set, reject_regex, reporter) do
+    code_absolute_paths =
+      :code.get_path()
+      |> Stream.reject(&(&1 == '.'))
+      |> Stream.map(&to_string/1)
+      |> Stream.map(&Path.absname/1)
+      |> Enum.sort()
+
+    Enum.each(code_absolute_paths, fn code_absolute_path ->
+      message = [:blue, "Interpreting modules under ", :magenta, code_absolute_path, :blue, "..."]
+
+      if MapSet.member?(sdk_absolute_path_set, code_absolute_path) do
+        [message, "  ...", :yellow, "skipped"]
+        |> IO.ANSI.format()
+        |> IO.puts()
+      else
+        message
+        |> IO.ANSI.format()
+        |> IO.puts()
+
+        interpret_modules_in(code_absolute_path, reject_regex, reporter)
+
+        [:blue, "  ...", :green, "completed"]
+        |> IO.ANSI.format()
+        |> IO.puts()
+      end
+    end)
   end
 
-  defp interpret_modules_in(path, reject_regex) when is_binary(path) do
+  defp interpretable?(module) when is_atom(module) do
+    :int.interpretable(module) == true && !:code.is_sticky(module) && module != __MODULE__
+  end
+
+  defp interpret_modules_in(path, reject_regex, reporter) when is_binary(path) do
     filtered =
       path
       |> Path.join("**/*.beam")
@@ -395,14 +496,35 @@ defmodule IntelliJElixir.Debugger.Server do
         end
       end)
 
+    # `:int.ni/1` spends most of its time loading and checking the abstract code in the calling process, so
+    # interpreting in bounded batches of tasks keeps all schedulers busy without flooding `:dbg_iserver`.
     filtered
     |> Stream.map(&String.to_atom/1)
-    |> Stream.filter(&(:int.interpretable(&1) == true && !:code.is_sticky(&1) && &1 != __MODULE__))
-    |> Enum.each(&time_interpret/1)
+    |> Stream.filter(&interpretable?/1)
+    |> Task.async_stream(&time_interpret(&1, reporter), max_concurrency: System.schedulers_online(), timeout: :infinity)
+    |> Stream.run()
 
     :ok
   end
 
+  defp lazily_interpretable?(module, %{reject_regex: reject_regex, sdk_absolute_path_set: sdk_absolute_path_set})
+       when is_atom(module) do
+    with false <- module in :int.interpreted(),
+         false <- Regex.match?(reject_regex, Atom.to_string(module)),
+         true <- interpretable?(module),
+         beam when is_list(beam) <- :code.which(module) do
+      code_absolute_path =
+        beam
+        |> to_string()
+        |> Path.dirname()
+        |> Path.absname()
+
+      !MapSet.member?(sdk_absolute_path_set, code_absolute_path)
+    else
+      _ -> false
+    end
+  end
+
   # `:elixir.quoted_to_erl/3` became private in Elixir 1.8, so need to inline it here.
   cond do
     Version.compare(System.version(), "1.8.0") == :lt ->
@@ -427,19 +549,62 @@ defmodule IntelliJElixir.Debugger.Server do
       end
   end
 
-  defp time_interpret(module) when is_atom(module) do
+  defp remote_call_modules({:call, anno, {:remote, _, {:atom, _, module}, _}, arguments}, line, acc) do
+    acc =
+      if :erl_anno.line(anno) == line do
+        MapSet.put(acc, module)
+      else
+        acc
+      end
+
+    remote_call_modules(arguments, line, acc)
+  end
+
+  defp remote_call_modules(tuple, line, acc) when is_tuple(tuple) do
+    tuple
+    |> Tuple.to_list()
+    |> remote_call_modules(line, acc)
+  end
+
+  defp remote_call_modules(list, line, acc) when is_list(list) do
+    Enum.reduce(list, acc, &remote_call_modules(&1, line, &2))
+  end
+
+  defp remote_call_modules(_, _, acc), do: acc
+
+  defp remote_call_modules_at_break(pid) do
+    with {^pid, _init, :break, {module, line}} <- List.keyfind(:int.snapshot(), pid, 0),
+         beam when is_list(beam) <- :code.which(module),
+         {:ok, {^module, [abstract_code: {:raw_abstract_v1, forms}]}} <- :beam_lib.chunks(beam, [:abstract_code]) do
+      forms
+      |> remote_call_modules(line, MapSet.new())
+      |> MapSet.to_list()
+    else
+      _ -> []
+    end
+  end
+
+  # Reports the time to the `reporter`, so that the IDE can show which modules are slow to interpret
+  defp time_interpret(module, reporter) when is_atom(module) do
     {microseconds, result} = :timer.tc(fn -> safely_interpret(module) end)
 
     [[:blue, "  ", :bright, :magenta, inspect(module), :blue, " in ", :magenta, to_string(microseconds), :italic, "μs"]]
     |> IO.ANSI.format()
     |> IO.puts()
 
+    if is_pid(reporter) do
+      GenServer.cast(reporter, {:interpreted_module, module, microseconds, result})
+    end
+
     result
   end
 
-  defp meta_pid_to_stack(meta_pid, %{line: break_line}) do
+  defp meta_pid_to_stack(pid, meta_pid, %{line: break_line}) do
     [{level, mfa} | backtrace_tail] = :int.meta(meta_pid, :backtrace, :all)
-    head_frame = {level, mfa, bindings(meta_pid, level), {to_file(mfa), break_line}}
+
+    head_frame =
+      {level, summarize_mfa(mfa), summarize_bindings(pid, level, bindings(meta_pid, level)),
+       {to_file(mfa), break_line}}
 
     tail_frames =
       case backtrace_tail do
@@ -451,7 +616,7 @@ defmodule IntelliJElixir.Debugger.Server do
           frames = stack_frames_above(meta_pid, level)
 
           for {{level, mfa = {module, _, _}}, {level, {module, line}, bindings}} <- List.zip([backtrace_tail, frames]) do
-            {level, mfa, bindings, {to_file(mfa), line}}
+            {level, summarize_mfa(mfa), summarize_bindings(pid, level, bindings), {to_file(mfa), line}}
           end
       end
 
@@ -475,7 +640,7 @@ defmodule IntelliJElixir.Debugger.Server do
   defp pid_to_stack(pid, options) do
     case :dbg_iserver.safe_call({:get_meta, pid}) do
       {:ok, meta_pid} ->
-        meta_pid_to_stack(meta_pid, options)
+        meta_pid_to_stack(pid, meta_pid, options)
 
       error ->
         IO.warn("Failed to obtain meta pid for #{inspect(pid)}: #{inspect(error)}")
@@ -502,16 +667,39 @@ defmodule IntelliJElixir.Debugger.Server do
     e -> {:error, e}
   end
 
-  defp snapshot_with_stacks() do
-    for {pid, init, status, info} <- :int.snapshot(), into: [] do
-      full_info =
-        case info do
-          {break_module, break_line} -> {break_module, break_line, source(break_module)}
-          _ -> info
+  defp set_breakpoint(module, line, reporter) when is_atom(module) and is_integer(line) do
+    unless module in :int.interpreted(), do: time_interpret(module, reporter)
+
+    :int.break(module, line)
+  end
+
+  # A process whose `{init, status, info}` is the same as in the last snapshot is still suspended at the same place, so
+  # its stack is not rebuilt or resent.  `reached_pid` is always sent because it may have broken on the same line again
+  # with different bindings.
+  defp changed_snapshots_with_stacks(reached_pid, previous_snapshot_key_by_pid) do
+    {reversed_changed_snapshots, snapshot_key_by_pid} =
+      Enum.reduce(:int.snapshot(), {[], %{}}, fn {pid, init, status, info}, {acc_snapshots, acc_key_by_pid} ->
+        key = {init, status, info}
+        acc_key_by_pid = Map.put(acc_key_by_pid, pid, key)
+
+        if pid != reached_pid and Map.get(previous_snapshot_key_by_pid, pid) == key do
+          {acc_snapshots, acc_key_by_pid}
+        else
+          {[snapshot_with_stack(pid, init, status, info) | acc_snapshots], acc_key_by_pid}
         end
+      end)
 
-      {pid, init, status, full_info, stack(pid, status, full_info)}
-    end
+    {Enum.reverse(reversed_changed_snapshots), snapshot_key_by_pid}
+  end
+
+  defp snapshot_with_stack(pid, init, status, info) do
+    full_info =
+      case info do
+        {break_module, break_line} -> {break_module, break_line, source(break_module)}
+        _ -> info
+      end
+
+    {pid, summarize_mfa(init), status, full_info, stack(pid, status, full_info)}
   end
 
   defp source(module) do
@@ -535,6 +723,73 @@ defmodule IntelliJElixir.Debugger.Server do
     end
   end
 
+  defp proper_list_length(list), do: proper_list_length(list, 0)
+
+  defp proper_list_length([], length), do: length
+  defp proper_list_length([_ | tail], length), do: proper_list_length(tail, length + 1)
+  defp proper_list_length(_, _), do: nil
+
+  # public only so that the thresholds can be tested
+  @doc false
+  def summarize(binary, reference) when is_binary(binary) and byte_size(binary) > @binary_prefix_size do
+    {@summary, :binary, byte_size(binary), binary_part(binary, 0, @binary_prefix_size), reference}
+  end
+
+  def summarize(list, reference) when is_list(list) do
+    case proper_list_length(list) do
+      # improper lists are sent as is
+      nil -> list
+      size when size > @page_size -> summary(:list, size, Enum.take(list, @page_size), reference)
+      _ -> summarize_elements(list, 0, reference)
+    end
+  end
+
+  def summarize(map, reference) when is_map(map) do
+    # elements are `{key, value}` in `:maps.to_list/1` order, so that `child/2` can index into them
+    if map_size(map) > @page_size do
+      summary(:map, map_size(map), map |> :maps.to_list() |> Enum.take(@page_size), reference)
+    else
+      map
+      |> :maps.to_list()
+      |> summarize_elements(0, reference)
+      |> Map.new()
+    end
+  end
+
+  def summarize(tuple, reference) when is_tuple(tuple) do
+    if tuple_size(tuple) > @page_size do
+      summary(:tuple, tuple_size(tuple), tuple |> Tuple.to_list() |> Enum.take(@page_size), reference)
+    else
+      tuple
+      |> Tuple.to_list()
+      |> summarize_elements(0, reference)
+      |> List.to_tuple()
+    end
+  end
+
+  def summarize(term, _), do: term
+
+  defp summarize_bindings(pid, level, bindings) do
+    Enum.map(bindings, fn {name, value} -> {name, summarize(value, {pid, level, [name]})} end)
+  end
+
+  defp summarize_elements(elements, offset, reference) do
+    elements
+    |> Enum.with_index(offset)
+    |> Enum.map(fn {element, index} -> summarize(element, child_reference(reference, index)) end)
+  end
+
+  # Arguments aren't bindings, so their summaries can't be expanded
+  defp summarize_mfa({module, function, arguments}) when is_list(arguments) do
+    {module, function, summarize_elements(arguments, 0, nil)}
+  end
+
+  defp summarize_mfa(mfa), do: mfa
+
+  defp summary(type, size, elements, reference) do
+    {@summary, type, size, summarize_elements(elements, 0, reference), reference}
+  end
+
   defp templates(module) do
     if Code.ensure_loaded?(module) && function_exported?(module, :__templates__, 0) do
       try do
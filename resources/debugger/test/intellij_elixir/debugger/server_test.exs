@@ -65,7 +65,8 @@ defmodule IntelliJElixir.Debugger.ServerTest do
     test "without sdk_paths without reject_elixir_module_name_patterns interprets everything", %{pid: pid} do
       assert :int.interpreted() == []
 
-      assert GenServer.call(pid, {:interpret, %{sdk_paths: [], reject_elixir_module_name_patterns: []}}, 40_000) == :ok
+      assert GenServer.call(pid, {:interpret, %{sdk_paths: [], reject_elixir_module_name_patterns: []}}) == :ok
+      assert_receive {:"$gen_cast", :interpreted_modules}, 40_000
 
       refute :int.interpreted() == []
 
@@ -83,10 +84,11 @@ defmodule IntelliJElixir.Debugger.ServerTest do
 
       assert GenServer.call(
                pid,
-               {:interpret, %{sdk_paths: [], reject_elixir_module_name_patterns: ["IntelliJElixir.*"]}},
-               40_000
+               {:interpret, %{sdk_paths: [], reject_elixir_module_name_patterns: ["IntelliJElixir.*"]}}
              ) == :ok
 
+      assert_receive {:"$gen_cast", :interpreted_modules}, 40_000
+
       refute IntelliJElixir.Debugger.Interpreted in :int.interpreted()
     end
 
@@ -106,6 +108,8 @@ defmodule IntelliJElixir.Debugger.ServerTest do
                {:interpret, %{sdk_paths: sdk_absolute_paths, reject_elixir_module_name_patterns: []}}
              ) == :ok
 
+      assert_receive {:"$gen_cast", :interpreted_modules}, 40_000
+
       assert :int.interpreted() == [IntelliJElixir.Debugger.Interpreted]
     end
 
@@ -126,7 +130,45 @@ defmodule IntelliJElixir.Debugger.ServerTest do
                {:interpret, %{sdk_paths: sdk_absolute_paths, reject_elixir_module_name_patterns: ["IntelliJElixir.*"]}}
              ) == :ok
 
+      assert_receive {:"$gen_cast", :interpreted_modules}, 40_000
+
+      assert :int.interpreted() == []
+    end
+
+    test "with sdk_paths casts the time to interpret each module to the caller", %{pid: pid} do
       assert :int.interpreted() == []
+
+      sdk_absolute_paths =
+        :code.get_path()
+        |> Stream.map(&to_string/1)
+        |> Stream.map(&Path.absname/1)
+        |> Enum.reject(fn absolute_code_path ->
+          String.contains?(absolute_code_path, "/resources/debugger/_build/shared/lib/intellij_elixir_debugger/")
+        end)
+
+      assert GenServer.call(
+               pid,
+               {:interpret, %{sdk_paths: sdk_absolute_paths, reject_elixir_module_name_patterns: []}}
+             ) == :ok
+
+      assert_receive {:"$gen_cast", :interpreted_modules}, 40_000
+
+      assert_received {:"$gen_cast",
+                       {:interpreted_module, IntelliJElixir.Debugger.Interpreted, microseconds, :ok}}
+
+      assert is_integer(microseconds)
+    end
+
+    test "with lazy does not interpret any modules", %{pid: pid} do
+      assert :int.interpreted() == []
+
+      assert GenServer.call(
+               pid,
+               {:interpret, %{lazy: true, sdk_paths: [], reject_elixir_module_name_patterns: []}}
+             ) == :ok
+
+      assert :int.interpreted() == []
+      refute_receive {:"$gen_cast", :interpreted_modules}
     end
   end
 
@@ -176,6 +218,21 @@ defmodule IntelliJElixir.Debugger.ServerTest do
     end
   end
 
+  describe "handle_call({:set_breakpoints, module_lines}, ..., ...)" do
+    test "replies with result for each breakpoint", %{pid: pid} do
+      module = IntelliJElixir.Debugger.Interpreted
+
+      assert GenServer.call(pid, {:set_breakpoints, [{Invalid, 1}, {module, 7}]}) == [:ok, :ok]
+
+      assert module in :int.interpreted()
+
+      assert Enum.sort(:int.all_breaks()) == [
+               {{Invalid, 1}, [:active, :enable, :null, :null]},
+               {{module, 7}, [:active, :enable, :null, :null]}
+             ]
+    end
+  end
+
   describe "handle_call({:remove_breakpoint, module, line}, ..., ...)" do
     test "can remove breakpoint set with {:set_breakpoint, module, line}", %{pid: pid} do
       module = IntelliJElixir.Debugger.Interpreted
@@ -199,6 +256,185 @@ defmodule IntelliJElixir.Debugger.ServerTest do
     end
   end
 
+  describe "handle_call({:remove_breakpoints, module_lines}, ..., ...)" do
+    test "can remove breakpoints set with {:set_breakpoints, module_lines}", %{pid: pid} do
+      module_lines = [{Invalid, 1}, {IntelliJElixir.Debugger.Interpreted, 7}]
+
+      GenServer.call(pid, {:set_breakpoints, module_lines})
+
+      assert length(:int.all_breaks()) == 2
+
+      assert GenServer.call(pid, {:remove_breakpoints, module_lines}) == [:ok, :ok]
+
+      assert :int.all_breaks() == []
+    end
+  end
+
+  describe "handle_call({:fetch_children, reference, offset, limit}, ..., ...)" do
+    test "with process that is not interpreted", %{pid: pid} do
+      assert GenServer.call(pid, {:fetch_children, {self(), 1, [:_list@1]}, 0, 100}) == {:error, :not_interpreted}
+    end
+
+    test "with interpreted process at a break", %{pid: pid} do
+      assert GenServer.call(pid, {:set_breakpoint, IntelliJElixir.Debugger.Interpreted, 16}) == :ok
+
+      broken_pid = spawn(&IntelliJElixir.Debugger.Interpreted.bindings/0)
+
+      on_exit(fn ->
+        Process.exit(broken_pid, :kill)
+      end)
+
+      level = break_level(broken_pid)
+
+      # pages past the summarized first `@page_size` elements
+      assert GenServer.call(pid, {:fetch_children, {broken_pid, level, [:_list@1]}, 100, 100}) ==
+               {:ok, Enum.to_list(101..150)}
+
+      # map elements are indexed as `{key, value}`
+      assert GenServer.call(pid, {:fetch_children, {broken_pid, level, [:_map@1, 0]}, 0, 100}) ==
+               {:ok, [:key, {:value, [1, 2, 3]}]}
+
+      assert GenServer.call(pid, {:fetch_children, {broken_pid, level, [:_map@1, 0, 1, 1]}, 1, 1}) == {:ok, [2]}
+
+      assert GenServer.call(pid, {:fetch_children, {broken_pid, level, [:_tuple@1, 1, 0]}, 0, 100}) ==
+               {:ok, [:nested, [4, 5, 6]]}
+
+      assert GenServer.call(pid, {:fetch_children, {broken_pid, level, [:_unbound@1]}, 0, 100}) == {:error, :unbound}
+    end
+  end
+
+  describe "summarize(term, reference)" do
+    @summary :"$intellij_elixir_summary"
+    @reference {:pid, 1, [:name]}
+
+    test "sends binaries up to 1024 bytes as is" do
+      binary = String.duplicate("a", 1024)
+
+      assert IntelliJElixir.Debugger.Server.summarize(binary, @reference) == binary
+    end
+
+    test "summarizes binaries over 1024 bytes with the first 1024 bytes" do
+      binary = String.duplicate("a", 1025)
+
+      assert IntelliJElixir.Debugger.Server.summarize(binary, @reference) ==
+               {@summary, :binary, 1025, String.duplicate("a", 1024), @reference}
+    end
+
+    test "sends lists up to 100 elements as is" do
+      list = Enum.to_list(1..100)
+
+      assert IntelliJElixir.Debugger.Server.summarize(list, @reference) == list
+    end
+
+    test "summarizes lists over 100 elements with the first 100 elements" do
+      assert IntelliJElixir.Debugger.Server.summarize(Enum.to_list(1..101), @reference) ==
+               {@summary, :list, 101, Enum.to_list(1..100), @reference}
+    end
+
+    test "sends improper lists as is" do
+      assert IntelliJElixir.Debugger.Server.summarize([1 | 2], @reference) == [1 | 2]
+    end
+
+    test "sends maps up to 100 elements as is" do
+      map = Map.new(1..100, &{&1, &1})
+
+      assert IntelliJElixir.Debugger.Server.summarize(map, @reference) == map
+    end
+
+    test "summarizes maps over 100 elements with the first 100 elements in :maps.to_list/1 order" do
+      map = Map.new(1..101, &{&1, &1})
+
+      assert IntelliJElixir.Debugger.Server.summarize(map, @reference) ==
+               {@summary, :map, 101, map |> :maps.to_list() |> Enum.take(100), @reference}
+    end
+
+    test "sends tuples up to 100 elements as is" do
+      tuple = 1..100 |> Enum.to_list() |> List.to_tuple()
+
+      assert IntelliJElixir.Debugger.Server.summarize(tuple, @reference) == tuple
+    end
+
+    test "summarizes tuples over 100 elements with the first 100 elements" do
+      tuple = 1..101 |> Enum.to_list() |> List.to_tuple()
+
+      assert IntelliJElixir.Debugger.Server.summarize(tuple, @reference) ==
+               {@summary, :tuple, 101, Enum.to_list(1..100), @reference}
+    end
+
+    test "summarizes nested elements with the path to them" do
+      {pid, level, path} = @reference
+
+      assert IntelliJElixir.Debugger.Server.summarize({:ok, [Enum.to_list(1..101)]}, @reference) ==
+               {:ok, [{@summary, :list, 101, Enum.to_list(1..100), {pid, level, path ++ [1, 0]}}]}
+    end
+  end
+
+  describe "handle_cast({:breakpoint_reached, pid}, ...)" do
+    test "casts pids of processes no longer in the snapshot", %{pid: pid} do
+      test_pid = self()
+      exited_pid = spawn(fn -> :ok end)
+
+      :sys.replace_state(pid, fn state ->
+        %{state | attached: test_pid, snapshot_key_by_pid: %{exited_pid => {{Exited, :run, []}, :exit, :normal}}}
+      end)
+
+      GenServer.cast(pid, {:breakpoint_reached, test_pid})
+
+      assert_receive {:"$gen_cast", {:breakpoint_reached, ^test_pid, [], [^exited_pid]}}
+      assert :sys.get_state(pid).snapshot_key_by_pid == %{}
+    end
+
+    test "omits unchanged processes, but always casts the reached process", %{pid: pid} do
+      test_pid = self()
+
+      assert GenServer.call(pid, {:set_breakpoint, IntelliJElixir.Debugger.Interpreted, 16}) == :ok
+
+      [reached_pid, other_pid] =
+        broken_pids =
+        Enum.map(1..2, fn _ ->
+          broken_pid = spawn(&IntelliJElixir.Debugger.Interpreted.bindings/0)
+          break_level(broken_pid)
+
+          broken_pid
+        end)
+
+      on_exit(fn ->
+        Enum.each(broken_pids, &Process.exit(&1, :kill))
+      end)
+
+      :sys.replace_state(pid, fn state -> %{state | attached: test_pid, snapshot_key_by_pid: %{}} end)
+
+      GenServer.cast(pid, {:breakpoint_reached, reached_pid})
+
+      assert_receive {:"$gen_cast", {:breakpoint_reached, ^reached_pid, changed_snapshots, []}}
+      changed_pids = Enum.map(changed_snapshots, &elem(&1, 0))
+      assert reached_pid in changed_pids
+      assert other_pid in changed_pids
+
+      # neither process moved, so only the reached process is resent
+      GenServer.cast(pid, {:breakpoint_reached, reached_pid})
+
+      assert_receive {:"$gen_cast", {:breakpoint_reached, ^reached_pid, [{^reached_pid, _, :break, _, [_ | _]}], []}}
+
+      GenServer.cast(pid, {:breakpoint_reached, other_pid})
+
+      assert_receive {:"$gen_cast", {:breakpoint_reached, ^other_pid, [{^other_pid, _, :break, _, [_ | _]}], []}}
+    end
+  end
+
+  # waits for `pid` to break and returns the level of its current frame
+  defp break_level(pid) do
+    if Enum.any?(:int.snapshot(), &match?({^pid, _, :break, _}, &1)) do
+      {:ok, meta_pid} = :dbg_iserver.safe_call({:get_meta, pid})
+      [{level, _} | _] = :int.meta(meta_pid, :backtrace, :all)
+
+      level
+    else
+      Process.sleep(10)
+      break_level(pid)
+    end
+  end
+
   def reset(_) do
     on_exit(fn ->
       :int.interpreted()
@@ -6,4 +6,13 @@ defmodule IntelliJElixir.Debugger.Interpreted do
   def debuggable do
     IO.puts("debuggable line")
   end
+
+  # `IntelliJElixir.Debugger.ServerTest` breaks on the last line to fetch the children of these bindings
+  def bindings do
+    list = Enum.to_list(1..150)
+    map = %{key: {:value, [1, 2, 3]}}
+    tuple = {:element, %{nested: [4, 5, 6]}}
+
+    {Enum.count(list), map, tuple}
+  end
 end
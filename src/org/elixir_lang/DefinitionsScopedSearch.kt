@@ -3,6 +3,8 @@ package org.elixir_lang
 import com.intellij.openapi.application.QueryExecutorBase
 import com.intellij.psi.PsiElement
 import com.intellij.psi.ResolveState
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.GlobalSearchScopeUtil
 import com.intellij.psi.search.searches.DefinitionsScopedSearch
 import com.intellij.util.Processor
 import org.elixir_lang.beam.psi.impl.CallDefinitionImpl
@@ -22,36 +24,47 @@ class DefinitionsScopedSearch :
         queryParameters: DefinitionsScopedSearch.SearchParameters,
         consumer: Processor<in PsiElement>
     ) {
-        when (val element = queryParameters.element) {
-            is Call -> processQuery(element, consumer)
-            is QualifiableAlias -> processQuery(element, consumer)
+        val element = queryParameters.element
+        val scope = GlobalSearchScopeUtil.toGlobalSearchScope(queryParameters.scope, element.project)
+
+        when (element) {
+            is Call -> processQuery(element, scope, consumer)
+            is QualifiableAlias -> processQuery(element, scope, consumer)
         }
     }
 
-    private fun processQuery(qualifiableAlias: QualifiableAlias, consumer: Processor<in PsiElement>) {
+    private fun processQuery(
+        qualifiableAlias: QualifiableAlias,
+        scope: GlobalSearchScope,
+        consumer: Processor<in PsiElement>
+    ): Boolean =
         qualifiableAlias.outerMostQualifiableAlias().maybeModularNameToModulars(qualifiableAlias.containingFile)
-            .map { modular ->
-                processQuery(modular, consumer)
+            .all { modular ->
+                processQuery(modular, scope, consumer)
             }
-    }
 
-    private fun processQuery(psiElement: PsiElement, consumer: Processor<in PsiElement>) {
+    private fun processQuery(
+        psiElement: PsiElement,
+        scope: GlobalSearchScope,
+        consumer: Processor<in PsiElement>
+    ): Boolean =
         when (psiElement) {
-            is Call -> processQuery(psiElement, consumer)
-            is ModuleImpl<*> -> processQuery(psiElement, consumer)
-            is CallDefinitionImpl<*> -> processQuery(psiElement, consumer)
+            is Call -> processQuery(psiElement, scope, consumer)
+            is ModuleImpl<*> -> processQuery(psiElement, scope, consumer)
+            is CallDefinitionImpl<*> -> processQuery(psiElement, scope, consumer)
+            else -> true
         }
-    }
 
-    private fun processQuery(call: Call, consumer: Processor<in PsiElement>) {
+    private fun processQuery(call: Call, scope: GlobalSearchScope, consumer: Processor<in PsiElement>): Boolean =
         if (Protocol.`is`(call)) {
-            Protocol.processImplementations(call, consumer)
+            Protocol.processImplementations(call, scope, consumer) &&
+                    Protocol.processDerivations(call, scope, consumer)
         } else if (CallDefinitionClause.`is`(call)) {
             enclosingModularMacroCall(call)?.let { modularCall ->
                 CallDefinitionClause.nameArityInterval(call, ResolveState.initial())?.let { protocolNameArityInterval ->
                     if (Protocol.`is`(modularCall)) {
-                        Protocol.processImplementations(modularCall) { defimpl ->
-                            for (defimplChild in (defimpl as Call).macroChildCallList()) {
+                        Protocol.processImplementations(modularCall, scope) { defimpl ->
+                            (defimpl as Call).macroChildCallList().all { defimplChild ->
                                 if (CallDefinitionClause.`is`(defimplChild)) {
                                     CallDefinitionClause.nameArityInterval(defimplChild, ResolveState.initial())
                                         ?.let { implNameArityInterval ->
@@ -59,36 +72,52 @@ class DefinitionsScopedSearch :
                                                 implNameArityInterval.arityInterval.overlaps(protocolNameArityInterval.arityInterval)
                                             ) {
                                                 consumer.process(defimplChild)
+                                            } else {
+                                                true
                                             }
                                         }
+                                        ?: true
+                                } else {
+                                    true
                                 }
                             }
-
-                            true
                         }
+                    } else {
+                        true
                     }
                 }
-            }
+            } ?: true
+        } else {
+            true
         }
-    }
 
-    private fun processQuery(moduleImpl: ModuleImpl<*>, consumer: Processor<in PsiElement>) {
+    private fun processQuery(
+        moduleImpl: ModuleImpl<*>,
+        scope: GlobalSearchScope,
+        consumer: Processor<in PsiElement>
+    ): Boolean =
         if (Protocol.`is`(moduleImpl)) {
-            Protocol.processImplementations(moduleImpl, consumer)
+            Protocol.processImplementations(moduleImpl, scope, consumer) &&
+                    Protocol.processDerivations(moduleImpl, scope, consumer)
+        } else {
+            true
         }
-    }
 
-    private fun processQuery(callDefinitionImpl: CallDefinitionImpl<*>, consumer: Processor<in PsiElement>) {
+    private fun processQuery(
+        callDefinitionImpl: CallDefinitionImpl<*>,
+        scope: GlobalSearchScope,
+        consumer: Processor<in PsiElement>
+    ): Boolean {
         val moduleImpl = callDefinitionImpl.parent
 
-        if (Protocol.`is`(moduleImpl)) {
+        return if (Protocol.`is`(moduleImpl)) {
             val name = callDefinitionImpl.name
             val arity = callDefinitionImpl.exportedArity(ResolveState.initial())
 
-            Protocol.processImplementations(moduleImpl) { defimpl ->
+            Protocol.processImplementations(moduleImpl, scope) { defimpl ->
                 when (defimpl) {
-                    is Call -> {
-                        for (defimplChild in defimpl.macroChildCallList()) {
+                    is Call ->
+                        defimpl.macroChildCallList().all { defimplChild ->
                             if (CallDefinitionClause.`is`(defimplChild)) {
                                 CallDefinitionClause.nameArityInterval(defimplChild, ResolveState.initial())
                                     ?.let { implNameArityInterval ->
@@ -96,25 +125,32 @@ class DefinitionsScopedSearch :
                                             implNameArityInterval.arityInterval.contains(arity)
                                         ) {
                                             consumer.process(defimplChild)
+                                        } else {
+                                            true
                                         }
                                     }
+                                    ?: true
+                            } else {
+                                true
                             }
                         }
-                    }
                     is ModuleImpl<*> ->
-                        for (callDefinition in defimpl.callDefinitions()) {
+                        defimpl.callDefinitions().all { callDefinition ->
                             val implNameArityInterval = callDefinition.nameArityInterval
 
                             if (implNameArityInterval.name == name &&
                                 implNameArityInterval.arityInterval.contains(arity)
                             ) {
                                 consumer.process(callDefinition)
+                            } else {
+                                true
                             }
                         }
+                    else -> true
                 }
-
-                true
             }
+        } else {
+            true
         }
     }
 }
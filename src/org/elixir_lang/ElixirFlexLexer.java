@@ -7,6 +7,7 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.TokenType;
 import com.intellij.psi.tree.IElementType;
 import org.elixir_lang.psi.ElixirTypes;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 
@@ -994,6 +995,11 @@ public class ElixirFlexLexer implements FlexLexer {
       return stack.size();
   }
 
+  @NotNull
+  public org.elixir_lang.lexer.Stack getStack() {
+      return stack;
+  }
+
   private void startQuote(CharSequence quotePromoterCharSequence) {
     String quotePromoter = quotePromoterCharSequence.toString();
     stack.push(quotePromoter, yystate());
@@ -2,13 +2,25 @@ package org.elixir_lang
 
 import com.intellij.lexer.FlexAdapter
 import com.intellij.openapi.project.Project
+import org.elixir_lang.lexer.Restartable
 
 import java.io.Reader
 
-class ElixirFlexLexerAdapter(project: Project?) : FlexAdapter(ElixirFlexLexer(null as Reader?)) {
+/**
+ * @param restartable wrap the [ElixirFlexLexer] in a [Restartable], so that [getState] encodes the lexer's stack and
+ *   lexing can restart at any token.  Off by default because the states are then no longer the
+ *   [ElixirFlexLexer] lexical states.
+ */
+class ElixirFlexLexerAdapter @JvmOverloads constructor(project: Project?, restartable: Boolean = false) :
+        FlexAdapter(ElixirFlexLexer(null as Reader?).let { if (restartable) Restartable(it) else it }) {
+    private val elixirFlexLexer: ElixirFlexLexer = (flex as? Restartable)?.flex ?: flex as ElixirFlexLexer
+
     init {
-        (flex as ElixirFlexLexer).project = project
+        elixirFlexLexer.project = project
     }
 
-    fun stackSize(): Int = (flex as ElixirFlexLexer).stackSize()
+    fun isRestartableState(state: Int): Boolean =
+            (flex as? Restartable)?.isRestartableState(state) ?: (state == ElixirFlexLexer.YYINITIAL)
+
+    fun stackSize(): Int = elixirFlexLexer.stackSize()
 }
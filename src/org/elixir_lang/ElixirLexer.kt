@@ -2,15 +2,30 @@ package org.elixir_lang
 
 import com.intellij.lexer.LookAheadLexer
 import com.intellij.lexer.MergingLexerAdapter
+import com.intellij.lexer.RestartableLexer
+import com.intellij.lexer.TokenIterator
 import com.intellij.openapi.project.Project
 import com.intellij.psi.tree.TokenSet
 import org.elixir_lang.psi.ElixirTypes
 
 class ElixirLexer(private val elixirFlexLexerAdapter: ElixirFlexLexerAdapter) :
-        LookAheadLexer(MergingLexerAdapter(elixirFlexLexerAdapter, FRAGMENTS)) {
+        LookAheadLexer(MergingLexerAdapter(elixirFlexLexerAdapter, FRAGMENTS)), RestartableLexer {
     constructor(project: Project?): this(ElixirFlexLexerAdapter(project))
     constructor(): this(null)
 
+    override fun getStartState(): Int = ElixirFlexLexer.YYINITIAL
+    override fun isRestartableState(state: Int): Boolean = elixirFlexLexerAdapter.isRestartableState(state)
+
+    override fun start(
+            buffer: CharSequence,
+            startOffset: Int,
+            endOffset: Int,
+            initialState: Int,
+            tokenIterator: TokenIterator?
+    ) {
+        start(buffer, startOffset, endOffset, initialState)
+    }
+
     fun stackSize(): Int = elixirFlexLexerAdapter.stackSize()
 
     companion object {
@@ -18,5 +33,12 @@ class ElixirLexer(private val elixirFlexLexerAdapter: ElixirFlexLexerAdapter) :
                 ElixirTypes.ATOM_FRAGMENT,
                 ElixirTypes.FRAGMENT
         )
+
+        /**
+         * Lexer for highlighting, which can restart from the checkpoint of any token, so that edits in large files
+         * only re-lex from the nearest token instead of from the start of the enclosing heredoc or interpolation.
+         */
+        @JvmStatic
+        fun restartable(): ElixirLexer = ElixirLexer(ElixirFlexLexerAdapter(null, restartable = true))
     }
 }
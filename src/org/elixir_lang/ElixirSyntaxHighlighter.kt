@@ -15,7 +15,7 @@ import kotlin.collections.List
  * Created by luke.imhoff on 8/2/14.
  */
 class ElixirSyntaxHighlighter : SyntaxHighlighterBase() {
-    override fun getHighlightingLexer(): Lexer = ElixirLexer()
+    override fun getHighlightingLexer(): Lexer = ElixirLexer.restartable()
 
     override fun getTokenHighlights(tokenType: IElementType): Array<TextAttributesKey> =
             when {
@@ -6,6 +6,8 @@ import org.elixir_lang.mail_box.BADRPC
 import org.elixir_lang.mail_box.BadRPC
 import org.elixir_lang.mail_box.WaitingMatcher
 import org.elixir_lang.psi.impl.QuotableImpl.NIL
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.ExecutionException
 import java.util.concurrent.TimeUnit
@@ -17,62 +19,90 @@ fun otpErlangTuple(vararg elements: OtpErlangObject) = OtpErlangTuple(elements)
 /**
  * [OtpMbox] that supports selective receive.
  *
- * Messages are [OtpMbox.receive]d in a pooled thread and stored until [selectiveReceive]
+ * Messages are [OtpMbox.receive]d in a pooled thread and stored until [selectiveReceive].  Replies to calls are instead
+ * dispatched by their `ref` directly to the [CompletableFuture] returned by [genericServerCallAsync], so that calls
+ * don't need to block a thread and many calls can be in flight at once.  Those futures are completed on the receiving
+ * thread, so callers should use the `*Async` variants with an executor for any callback that can block.
  */
 class MailBox(private val otpNode: OtpNode, private val otpMbox: OtpMbox) {
+    // before `init`, so that they are initialized before the first message is received
+    private val pendingCallByRef = ConcurrentHashMap<OtpErlangRef, CompletableFuture<OtpErlangObject>>()
+    private val serverPidByRemote = ConcurrentHashMap<Server, OtpErlangPid>()
+
     init {
         ApplicationManager.getApplication().executeOnPooledThread {
             try {
                 loop()
             } catch (exception: Exception) {
-                while (!waitingMatchers.isEmpty()) {
-                    waitingMatchers.poll()?.completeExceptionally(exception)
-                }
+                completeAllExceptionally(exception)
             }
         }
     }
 
-    fun genericServerCall(remote: Server, request: OtpErlangObject, timeout: Int): OtpErlangObject {
-        val serverPid = processWhereIs(remote, timeout)
-                ?: throw OtpErlangExit("Could not determine PID for $remote within $timeout")
-
-        return genericServerCall(serverPid, request, timeout)
-    }
-
-    private fun genericServerCall(serverPid: OtpErlangPid, request: OtpErlangObject, timeout: Int): OtpErlangObject {
-        otpMbox.link(serverPid)
-
-        val response = genericServerUnmonitoredCall(serverPid, request, timeout)
+    fun genericServerCall(remote: Server, request: OtpErlangObject, timeout: Int): OtpErlangObject =
+            await(genericServerCallAsync(remote, request, timeout))
 
-        otpMbox.unlink(serverPid)
+    /**
+     * Like [genericServerCall], but returns immediately.  The `pid` of [remote] is looked up asynchronously and linked
+     * on the first call only.  If a call to the cached `pid` fails, such as when the server exited, the `pid` is
+     * dropped, so that the next call looks it up again.
+     *
+     * @return completes with the reply or exceptionally with [OtpErlangExit] `timeout` if there is no reply within
+     *   [timeout] milliseconds, or with [OtpErlangExit] or [BadRPC] if the `pid` of [remote] could not be looked up.
+     */
+    fun genericServerCallAsync(
+            remote: Server,
+            request: OtpErlangObject,
+            timeout: Int
+    ): CompletableFuture<OtpErlangObject> {
+        val serverPidFuture = serverPidByRemote[remote]
+                ?.let { CompletableFuture.completedFuture(it) }
+                ?: processWhereIsAsync(remote, timeout).thenApply { serverPid ->
+                    if (serverPid == null) {
+                        throw OtpErlangExit("Could not determine PID for $remote within $timeout")
+                    }
 
-        return response
-    }
+                    otpMbox.link(serverPid)
 
-    @Throws(BadRPC::class)
-    private fun processWhereIs(remote: Server, timeout: Int): OtpErlangPid? {
-        val response = rpcUnmonitoredCall(
-                remote,
-                OtpErlangAtom("Elixir.Process"),
-                OtpErlangAtom("whereis"),
-                OtpErlangList(arrayOf(OtpErlangAtom(remote.registeredNamed))),
-                timeout
-        )
+                    serverPidByRemote.putIfAbsent(remote, serverPid) ?: serverPid
+                }
 
-        return when (response) {
-            NIL -> null
-            else -> response as OtpErlangPid
+        return serverPidFuture.thenCompose { serverPid ->
+            genericServerUnmonitoredCallAsync(serverPid, request, timeout).whenComplete { _, throwable ->
+                if (throwable != null) {
+                    serverPidByRemote.remove(remote, serverPid)
+                }
+            }
         }
     }
 
     @Throws(BadRPC::class)
-    private fun rpcUnmonitoredCall(
+    private fun processWhereIs(remote: Server, timeout: Int): OtpErlangPid? = await(processWhereIsAsync(remote, timeout))
+
+    private fun processWhereIsAsync(remote: Server, timeout: Int): CompletableFuture<OtpErlangPid?> =
+            rpcUnmonitoredCallAsync(
+                    remote,
+                    OtpErlangAtom("Elixir.Process"),
+                    OtpErlangAtom("whereis"),
+                    OtpErlangList(arrayOf(OtpErlangAtom(remote.registeredNamed))),
+                    timeout
+            ).thenApply { response ->
+                when (response) {
+                    NIL -> null
+                    else -> response as OtpErlangPid
+                }
+            }
+
+    /**
+     * @return completes exceptionally with [BadRPC] if the `rex` server replied with `{:badrpc, reason}`
+     */
+    private fun rpcUnmonitoredCallAsync(
             remote: Server,
             module: OtpErlangAtom,
             function: OtpErlangAtom,
             arguments: OtpErlangList,
             timeout: Int
-    ): OtpErlangObject {
+    ): CompletableFuture<OtpErlangObject> {
         val request = otpErlangTuple(
                 OtpErlangAtom("call"),
                 module,
@@ -83,60 +113,85 @@ class MailBox(private val otpNode: OtpNode, private val otpMbox: OtpMbox) {
         )
 
         val remoteRex = remote.copy(registeredNamed = "rex")
-        val response = genericServerUnmonitoredCall(remoteRex, request, timeout)
 
-        return if (response is OtpErlangTuple && response.arity() == 2 && response.elementAt(0) == BADRPC) {
-            throw BadRPC(response.elementAt(1))
-        } else {
-            response
+        return genericServerUnmonitoredCallAsync(remoteRex, request, timeout).thenApply { response ->
+            if (response is OtpErlangTuple && response.arity() == 2 && response.elementAt(0) == BADRPC) {
+                throw BadRPC(response.elementAt(1))
+            } else {
+                response
+            }
         }
     }
 
     private val GEN_CALL = OtpErlangAtom("\$gen_call")
 
-    private fun genericServerUnmonitoredCall(remote: Server, request: OtpErlangObject, timeout: Int): OtpErlangObject =
-            genericUnmonitoredCall(remote, GEN_CALL, request, timeout)
+    private fun genericServerUnmonitoredCallAsync(
+            remote: Server,
+            request: OtpErlangObject,
+            timeout: Int
+    ): CompletableFuture<OtpErlangObject> =
+            genericUnmonitoredCallAsync(GEN_CALL, request, timeout) { message ->
+                otpMbox.send(remote.registeredNamed, remote.nodeName, message)
+            }
 
-    private fun genericServerUnmonitoredCall(serverPid: OtpErlangPid, request: OtpErlangObject, timeout: Int): OtpErlangObject =
-            genericUnmonitoredCall(serverPid, GEN_CALL, request, timeout)
+    private fun genericServerUnmonitoredCallAsync(
+            serverPid: OtpErlangPid,
+            request: OtpErlangObject,
+            timeout: Int
+    ): CompletableFuture<OtpErlangObject> =
+            genericUnmonitoredCallAsync(GEN_CALL, request, timeout) { message -> otpMbox.send(serverPid, message) }
 
     /**
-     * Sends a generic message containing `request` with the given `label` to `remoteName` process on
-     * `remoteNode` from `localMbox` on `localNode`.  Unlike, `gen:call`, a monitor is not setup prior
-     * to the call.
+     * Sends a generic message containing `request` with the given `label` using [send].  Unlike, `gen:call`, a monitor
+     * is not setup prior to the call.
+     *
+     * The reply, `{ref, reply}`, is matched by `ref` in [pendingCallByRef] when it is received, instead of being
+     * stored for selective receive.
      *
      * @link https://github.com/erlang/otp/blob/OTP_R16B03-1/lib/stdlib/src/gen.erl#L209
      */
-    private fun genericUnmonitoredCall(remote: Server, label: OtpErlangAtom, request: OtpErlangObject, timeout: Int): OtpErlangObject =
-            genericUnmonitoredCall(label, request, timeout) { message -> otpMbox.send(remote.registeredNamed, remote.nodeName, message) }
-
-    private fun genericUnmonitoredCall(serverPid: OtpErlangPid, label: OtpErlangAtom, request: OtpErlangObject, timeout: Int): OtpErlangObject =
-            genericUnmonitoredCall(label, request, timeout) { message -> otpMbox.send(serverPid, message) }
-
-    private fun genericUnmonitoredCall(
+    private fun genericUnmonitoredCallAsync(
             label: OtpErlangAtom,
             request: OtpErlangObject,
             timeout: Int,
             send: (message: OtpErlangObject) -> Unit
-    ): OtpErlangObject {
+    ): CompletableFuture<OtpErlangObject> {
         val ref = otpNode.createRef()
         val message = otpErlangTuple(label, returnAddress(otpMbox, ref), request)
+        val pendingCall = CompletableFuture<OtpErlangObject>()
 
-        send(message)
+        pendingCallByRef[ref] = pendingCall
+        pendingCall
+                .orTimeout(timeout.toLong(), TimeUnit.MILLISECONDS)
+                .whenComplete { _, _ -> pendingCallByRef.remove(ref) }
 
-        val received = receive(timeout) { receivedMessage ->
-            if (receivedMessage is OtpErlangTuple &&
-                    receivedMessage.arity() == 2 &&
-                    receivedMessage.elementAt(0) == ref) {
-                receivedMessage.elementAt(1)
-            } else {
-                null
-            }
+        try {
+            send(message)
+        } catch (exception: Exception) {
+            pendingCall.completeExceptionally(exception)
         }
 
-        return received as OtpErlangObject
+        return pendingCall
     }
 
+    /**
+     * Completes the call waiting for [message] if it is a `{ref, reply}` reply to a pending call.
+     *
+     * @return `true` if [message] was a reply to a pending call
+     */
+    private fun completePendingCall(message: OtpErlangObject): Boolean =
+            if (message is OtpErlangTuple && message.arity() == 2) {
+                val ref = message.elementAt(0)
+
+                if (ref is OtpErlangRef) {
+                    pendingCallByRef.remove(ref)?.complete(message.elementAt(1)) != null
+                } else {
+                    false
+                }
+            } else {
+                false
+            }
+
     /**
      * Attempts to match already received messages using [matcher].
      *
@@ -183,6 +238,7 @@ class MailBox(private val otpNode: OtpNode, private val otpMbox: OtpMbox) {
 
                 if (pid != null) {
                     otpMbox.link(pid)
+                    serverPidByRemote[remote] = pid
                     break
                 }
             } catch (otpErlangExit: OtpErlangExit) {
@@ -193,6 +249,20 @@ class MailBox(private val otpNode: OtpNode, private val otpMbox: OtpMbox) {
         }
     }
 
+    /**
+     * Waits for [future] like [receive], so that the same exceptions are thrown.
+     */
+    private fun <T> await(future: CompletableFuture<T>): T =
+            try {
+                future.get()
+            } catch (executionException: ExecutionException) {
+                when (val cause = executionException.cause) {
+                    is TimeoutException -> throw OtpErlangExit(TIMEOUT)
+                    null -> throw executionException
+                    else -> throw cause
+                }
+            }
+
     private fun wait(timeout: Int? = null, matcher: (message: OtpErlangObject) -> Any?): Any {
         val waitingMatcher = org.elixir_lang.mail_box.WaitingMatcher(matcher)
 
@@ -219,25 +289,36 @@ class MailBox(private val otpNode: OtpNode, private val otpMbox: OtpMbox) {
         val received = otpMbox.receive()
 
         if (received != CLOSE) {
-            synchronized(receivedMessages) {
-                receivedMessages.add(received)
+            if (!completePendingCall(received)) {
+                synchronized(receivedMessages) {
+                    receivedMessages.add(received)
 
-                checkWaitingMatchers()
+                    checkWaitingMatchers()
+                }
             }
 
             loop()
         } else {
-            val exit = OtpErlangExit("normal")
-
-            while (!waitingMatchers.isEmpty()) {
-                waitingMatchers.poll()?.completeExceptionally(exit)
-            }
+            completeAllExceptionally(OtpErlangExit("normal"))
 
             otpMbox.close()
             otpNode.close()
         }
     }
 
+    private fun completeAllExceptionally(exception: Exception) {
+        // the servers are linked, so they may have exited too
+        serverPidByRemote.clear()
+
+        while (!waitingMatchers.isEmpty()) {
+            waitingMatchers.poll()?.completeExceptionally(exception)
+        }
+
+        for (ref in pendingCallByRef.keys) {
+            pendingCallByRef.remove(ref)?.completeExceptionally(exception)
+        }
+    }
+
     private fun checkWaitingMatchers() {
         val iterator = waitingMatchers.iterator()
 
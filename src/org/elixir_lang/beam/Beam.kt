@@ -13,6 +13,7 @@ import org.elixir_lang.beam.chunk.Chunk.TypeID.*
 import org.elixir_lang.beam.chunk.beam_documentation.Documentation
 import org.elixir_lang.beam.term.ByteCount
 import java.io.*
+import java.nio.ByteBuffer
 import java.nio.charset.Charset
 import java.util.*
 import java.util.zip.GZIPInputStream
@@ -30,27 +31,33 @@ fun binaryToTerm(byteArray: ByteArray, offset: Int): Pair<OtpErlangObject, ByteC
     return Pair(term, stream.pos - offset)
 }
 
-private fun decompressedInputStream(inputStream: InputStream): InputStream? {
-    assert(inputStream.markSupported())
-
-    inputStream.mark(2)
+/**
+ * @return [byteBuffer] if it is not gzipped; otherwise, a [ByteBuffer] over the inflated contents.
+ */
+private fun decompressed(byteBuffer: ByteBuffer): ByteBuffer? =
+        if (byteBuffer.remaining() >= 2 &&
+                byteBuffer.get(byteBuffer.position()).toInt().and(0xFF) == GZIP_FIRST_UNSIGNED_BYTE &&
+                byteBuffer.get(byteBuffer.position() + 1).toInt().and(0xFF) == GZIP_SECOND_UNSIGNED_BYTE) {
+            val compressed = ByteArray(byteBuffer.remaining())
+            byteBuffer.duplicate().get(compressed)
 
-    return try {
-        if (inputStream.read() == GZIP_FIRST_UNSIGNED_BYTE && inputStream.read() == GZIP_SECOND_UNSIGNED_BYTE) {
-            inputStream.reset()
-            GZIPInputStream(inputStream)
+            try {
+                GZIPInputStream(ByteArrayInputStream(compressed)).use { ByteBuffer.wrap(it.readBytes()) }
+            } catch (e: IOException) {
+                null
+            }
         } else {
-            inputStream.reset()
-            inputStream
+            byteBuffer
         }
-    } catch (e: IOException) {
-        null
-    }
-}
 
-private fun virtualFileToInputStream(virtualFile: VirtualFile): InputStream? =
+/**
+ * Reads [virtualFile] onto the heap once, so that chunks are views over that one array and only the decoded chunks
+ * are copied.  The file is not memory-mapped: [Beam]s are kept in [Cache] and user data, and a mapping that outlives
+ * the read faults or sees new bytes when `mix compile` rewrites or truncates the `.beam` in place.
+ */
+private fun virtualFileToByteBuffer(virtualFile: VirtualFile): ByteBuffer? =
         try {
-            virtualFile.inputStream
+            ByteBuffer.wrap(virtualFile.contentsToByteArray())
         } catch (e: IOException) {
             null
         }
@@ -102,42 +109,46 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
         private val LOGGER = Logger.getInstance(Beam::class.java)
 
         fun from(dataInputStream: DataInputStream, path: String): Beam? {
-            val header: String?
-
-            try {
-                header = typeID(dataInputStream)
+            val content = try {
+                dataInputStream.readBytes()
             } catch (ioException: IOException) {
-                LOGGER.error("Could not read header from BEAM DataInputStream from $path", ioException)
+                LOGGER.error("Could not read BEAM DataInputStream from $path", ioException)
                 return null
             }
 
+            return from(ByteBuffer.wrap(content), path)
+        }
+
+        /**
+         * Reads the chunks of the `.beam` file in [byteBuffer] as views over [byteBuffer].  No chunk's data is copied
+         * until it is decoded, so readers that only need some chunks, such as [StubBuilder] only needing the atoms and
+         * exports, don't allocate for the rest.
+         */
+        fun from(byteBuffer: ByteBuffer, path: String): Beam? {
+            val decompressed = decompressed(byteBuffer) ?: run {
+                LOGGER.error("Could not decompress BEAM from $path")
+                return null
+            }
+
+            val header = typeID(decompressed)
+
             if (HEADER != header) {
                 if (header != null && !testCase(header)) {
                     LOGGER.error(
                             "header typeID ($header) did not match expected ($HEADER) from $path. " +
-                                    "There are ${dataInputStream.available()} bytes available on the " +
-                                    "dataInputStream. File size is ${File(path).length()} bytes."
+                                    "There are ${decompressed.remaining()} bytes available on the " +
+                                    "byteBuffer. File size is ${File(path).length()} bytes."
                     )
                 }
                 return null
             }
 
-            try {
-                length(dataInputStream)
-            } catch (ioException: IOException) {
-                LOGGER.error("Could not read length from BEAM DataInputStream from $path", ioException)
-                return null
-            }
-
-            val section: String?
-
-            try {
-                section = typeID(dataInputStream)
-            } catch (ioException: IOException) {
-                LOGGER.error("Could not read section header from BEAM DataInputStream from $path", ioException)
+            if (length(decompressed) == null) {
+                LOGGER.error("Could not read length from BEAM ByteBuffer from $path")
                 return null
             }
 
+            val section = typeID(decompressed)
 
             if ("BEAM" != section) {
                 LOGGER.error("Section header is not BEAM in $path")
@@ -145,16 +156,16 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
             }
 
             val chunkList = ArrayList<Chunk>()
-            val i = 1
 
             while (true) {
                 val chunk: Chunk?
 
                 try {
-                    chunk = Chunk.from(dataInputStream)
+                    chunk = Chunk.from(decompressed)
                 } catch (ioException: IOException) {
                     LOGGER.error(
-                            "Could not read chunk number $i from BEAM DataInputStream from $path.  Returning truncated Beam object",
+                            "Could not read chunk number ${chunkList.size + 1} from BEAM ByteBuffer from $path.  " +
+                                    "Returning truncated Beam object",
                             ioException
                     )
                     break
@@ -170,20 +181,18 @@ class Beam private constructor(chunkCollection: Collection<Chunk>) {
             return Beam(chunkList)
         }
 
+        /**
+         * @param content the contents of a `.beam` file, such as [FileContent.getContent].  Chunks are views over
+         *   [content], so it is not copied.
+         */
         @Throws(IOException::class, OtpErlangDecodeException::class)
-        fun from(content: ByteArray, path: String): Beam? =
-                decompressedInputStream(ByteArrayInputStream(content))
-                        ?.let { DataInputStream(it) }
-                        ?.let { Beam.from(it, path) }
+        fun from(content: ByteArray, path: String): Beam? = from(ByteBuffer.wrap(content), path)
 
         @Throws(IOException::class, OtpErlangDecodeException::class)
         fun from(fileContent: FileContent): Beam? = from(fileContent.content, fileContent.file.path)
 
         fun from(virtualFile: VirtualFile): Beam? =
-                virtualFileToInputStream(virtualFile)
-                        ?.let { decompressedInputStream(it) }
-                        ?.let { DataInputStream(it) }
-                        ?.let { Beam.from(it, virtualFile.path) }
+                virtualFileToByteBuffer(virtualFile)?.let { Beam.from(it, virtualFile.path) }
 
         fun `is`(virtualFile: VirtualFile): Boolean = !virtualFile.isDirectory && "beam" == virtualFile.extension
 
@@ -1,14 +1,12 @@
 import com.intellij.openapi.actionSystem.AnAction
 import com.intellij.openapi.actionSystem.AnActionEvent
-import com.intellij.openapi.application.ex.ApplicationManagerEx
 import com.intellij.openapi.application.runInEdt
-import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.module.ModuleManager
+import com.intellij.openapi.progress.ProcessCanceledException
 import com.intellij.openapi.progress.ProgressIndicator
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.progress.Task
-import com.intellij.openapi.progress.impl.ProgressRunner
-import com.intellij.openapi.progress.util.ProgressWindow
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.projectRoots.Sdk
 import com.intellij.openapi.roots.ModuleRootManager
@@ -23,75 +21,85 @@ import com.intellij.psi.PsiErrorElement
 import com.intellij.psi.PsiManager
 import com.intellij.psi.SyntaxTraverser
 import org.elixir_lang.errorreport.Logger
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
+/**
+ * Decompiles all `.beam` files in the project's content roots and SDKs to check that the decompiled code parses.
+ *
+ * The `.beam` files are collected first and then decompiled on a [ForkJoinPool] with [PARALLELISM_PROPERTY] workers,
+ * which defaults to the number of available processors.
+ */
 class BulkDecompilation : AnAction() {
     override fun actionPerformed(event: AnActionEvent) {
         event.project?.let { project ->
             ProgressManager.getInstance().run(object : Task.Backgroundable(project, "Bulk Decompiling BEAM (.beam) files", true) {
                 override fun run(indicator: ProgressIndicator) {
-                    indicator.isIndeterminate = false
+                    val beamFiles = beamFiles(indicator, project)
+                    val summary = decompile(indicator, PsiManager.getInstance(project), beamFiles)
 
-                    val sdkSet = mutableSetOf<Sdk>()
-                    val psiManager = PsiManager.getInstance(project)
-                    val modules = ModuleManager.getInstance(project).modules
-                    val moduleCount = modules.size
+                    LOGGER.info(summary.toString())
 
-                    modules.withIndex().forEach { (index, module) ->
-                        indicator.text2 = "Module ${module.name}"
-                        indicator.fraction = index.toDouble() / moduleCount
+                    runInEdt {
+                        Messages.showInfoMessage(project, summary.toString(), "BEAM Bulk Decompilation")
+                    }
+                }
+            })
+        }
+    }
 
-                        val moduleRootManager = ModuleRootManager.getInstance(module)
-                        val moduleSDK = moduleRootManager.sdk
+    private fun beamFiles(indicator: ProgressIndicator, project: Project): List<VirtualFile> {
+        indicator.isIndeterminate = true
 
-                        if (moduleSDK != null) {
-                            sdkSet.add(moduleSDK)
-                        }
+        val beamFileSet = linkedSetOf<VirtualFile>()
+        val sdkSet = mutableSetOf<Sdk>()
 
-                        ModuleRootManager.getInstance(module).contentRoots.forEach { contentRoot ->
-                            indicator.text2 = "Content root ${contentRoot.path}"
-                            decompile(indicator, psiManager, contentRoot)
-                        }
-                    }
+        ModuleManager.getInstance(project).modules.forEach { module ->
+            indicator.checkCanceled()
+            indicator.text2 = "Module ${module.name}"
 
-                    val projectSDK = ProjectRootManager.getInstance(project).projectSdk
+            val moduleRootManager = ModuleRootManager.getInstance(module)
+            val moduleSDK = moduleRootManager.sdk
 
-                    if (projectSDK != null) {
-                        sdkSet.add(projectSDK)
-                    }
+            if (moduleSDK != null) {
+                sdkSet.add(moduleSDK)
+            }
 
-                    val sdkCount = sdkSet.size
+            moduleRootManager.contentRoots.forEach { contentRoot ->
+                indicator.text2 = "Content root ${contentRoot.path}"
+                collectBeamFiles(indicator, contentRoot, beamFileSet)
+            }
+        }
 
-                    sdkSet.withIndex().forEach { (index, sdk) ->
-                        indicator.text2 = "SDK ${sdk.name}"
-                        indicator.fraction = index.toDouble() / sdkCount
+        val projectSDK = ProjectRootManager.getInstance(project).projectSdk
 
-                        sdk.rootProvider.getFiles(OrderRootType.CLASSES).forEach { virtualFile ->
-                            indicator.text2 = "SDK ${sdk.name} BEAM root ${virtualFile.path}"
-                            decompile(indicator, psiManager, virtualFile)
-                        }
-                    }
-                }
-            })
+        if (projectSDK != null) {
+            sdkSet.add(projectSDK)
+        }
+
+        sdkSet.forEach { sdk ->
+            sdk.rootProvider.getFiles(OrderRootType.CLASSES).forEach { virtualFile ->
+                indicator.text2 = "SDK ${sdk.name} BEAM root ${virtualFile.path}"
+                collectBeamFiles(indicator, virtualFile, beamFileSet)
+            }
         }
+
+        return beamFileSet.toList()
     }
 
-    private fun decompile(indicator: ProgressIndicator, psiManager: PsiManager, virtualFile: VirtualFile) {
+    private fun collectBeamFiles(indicator: ProgressIndicator, virtualFile: VirtualFile, beamFileSet: MutableSet<VirtualFile>) {
         if (virtualFile.isDirectory) {
             VfsUtilCore.visitChildrenRecursively(virtualFile, object : VirtualFileVisitor<Void>() {
                 override fun visitFile(file: VirtualFile): Boolean {
-                    indicator.text2 = file.path
+                    indicator.checkCanceled()
 
                     return if (file.isDirectory) {
                         true
                     } else {
                         if (file.fileType is org.elixir_lang.beam.FileType) {
-                           runReadAction {
-                                psiManager.findFile(file)?.let { it as? PsiCompiledFile }?.decompiledPsiFile?.let { decompiledPsiFile ->
-                                    if (SyntaxTraverser.psiTraverser(decompiledPsiFile).traverse().filter(PsiErrorElement::class.java).isNotEmpty) {
-                                        Logger.error(BulkDecompilation::class.java, "Parsing error in decompiled ${file.path}", decompiledPsiFile)
-                                    }
-                                }
-                            }
+                            beamFileSet.add(file)
                         }
 
                         false
@@ -100,5 +108,124 @@ class BulkDecompilation : AnAction() {
             })
         }
     }
-}
 
+    private fun decompile(indicator: ProgressIndicator, psiManager: PsiManager, beamFiles: List<VirtualFile>): Summary {
+        indicator.isIndeterminate = false
+        indicator.fraction = 0.0
+
+        val queue = ConcurrentLinkedQueue(beamFiles)
+        val completedCount = AtomicInteger()
+        val timings = ConcurrentLinkedQueue<Pair<VirtualFile, Long>>()
+        val parsingErrorCount = AtomicInteger()
+        val exceptionCount = AtomicInteger()
+        val parallelism = parallelism()
+        val pool = ForkJoinPool(parallelism)
+
+        try {
+            val workers = (1..parallelism).map {
+                pool.submit {
+                    while (!indicator.isCanceled) {
+                        val file = queue.poll() ?: break
+                        val start = System.nanoTime()
+
+                        try {
+                            if (decompile(indicator, psiManager, file)) {
+                                parsingErrorCount.incrementAndGet()
+                            }
+                        } catch (processCanceledException: ProcessCanceledException) {
+                            break
+                        } catch (exception: Exception) {
+                            exceptionCount.incrementAndGet()
+                            LOGGER.error("Exception while decompiling ${file.path}", exception)
+                        }
+
+                        timings.add(file to System.nanoTime() - start)
+
+                        val completed = completedCount.incrementAndGet()
+                        indicator.text2 = "${file.path} ($completed / ${beamFiles.size})"
+                        indicator.fraction = completed.toDouble() / beamFiles.size
+                    }
+                }
+            }
+
+            workers.forEach { it.get() }
+        } finally {
+            pool.shutdownNow()
+            pool.awaitTermination(1, TimeUnit.MINUTES)
+        }
+
+        indicator.checkCanceled()
+
+        return Summary(
+                fileCount = beamFiles.size,
+                parallelism = parallelism,
+                parsingErrorCount = parsingErrorCount.get(),
+                exceptionCount = exceptionCount.get(),
+                slowest = timings.sortedByDescending { it.second }.take(SLOWEST_COUNT)
+        )
+    }
+
+    /**
+     * Decompiles [file] in a read action that is cancelled by pending write actions and then retried, so that a long
+     * batch never blocks them.  [ProgressIndicatorUtils.runInReadActionWithWriteActionPriority] wraps [indicator] for
+     * the read action, so `checkCanceled` in the decompiler also reacts to the user cancelling the batch, without
+     * running every worker under the one shared [indicator].
+     *
+     * @return `true` if the decompiled [file] has parsing errors
+     */
+    private fun decompile(indicator: ProgressIndicator, psiManager: PsiManager, file: VirtualFile): Boolean {
+        var hasParsingErrors = false
+
+        while (!ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(
+                { hasParsingErrors = hasParsingErrors(psiManager, file) },
+                indicator
+            )) {
+            indicator.checkCanceled()
+            ProgressIndicatorUtils.yieldToPendingWriteActions()
+        }
+
+        return hasParsingErrors
+    }
+
+    private fun hasParsingErrors(psiManager: PsiManager, file: VirtualFile): Boolean =
+        psiManager.findFile(file)?.let { it as? PsiCompiledFile }?.decompiledPsiFile?.let { decompiledPsiFile ->
+            if (SyntaxTraverser.psiTraverser(decompiledPsiFile).traverse().filter(PsiErrorElement::class.java).isNotEmpty) {
+                Logger.error(BulkDecompilation::class.java, "Parsing error in decompiled ${file.path}", decompiledPsiFile)
+
+                true
+            } else {
+                false
+            }
+        } ?: false
+
+    private class Summary(
+            val fileCount: Int,
+            val parallelism: Int,
+            val parsingErrorCount: Int,
+            val exceptionCount: Int,
+            val slowest: List<Pair<VirtualFile, Long>>
+    ) {
+        override fun toString(): String =
+            buildString {
+                append("Decompiled $fileCount .beam files with $parallelism workers: ")
+                append("$parsingErrorCount with parsing errors, $exceptionCount with exceptions.")
+
+                if (slowest.isNotEmpty()) {
+                    append("\n\nSlowest files:")
+
+                    slowest.forEach { (file, nanoseconds) ->
+                        append("\n${TimeUnit.NANOSECONDS.toMillis(nanoseconds)} ms ${file.path}")
+                    }
+                }
+            }
+    }
+
+    companion object {
+        private val LOGGER = com.intellij.openapi.diagnostic.Logger.getInstance(BulkDecompilation::class.java)
+        private const val PARALLELISM_PROPERTY = "elixir.beam.bulk_decompilation.parallelism"
+        private const val SLOWEST_COUNT = 10
+
+        private fun parallelism(): Int =
+            Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()).coerceAtLeast(1)
+    }
+}
@@ -1,31 +1,53 @@
 package org.elixir_lang.beam
 
+import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.util.Key
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.indexing.FileContent
+import org.elixir_lang.beam.cache.Decoded
 import org.elixir_lang.beam.chunk.*
+import java.io.IOException
 
-class Cache private constructor(private val beam: Beam) {
-    val atoms: Atoms? by lazy { beam.atoms() }
-    val attributes: Keyword? by lazy { beam.attributes() }
-    val code: Code? by lazy { beam.code() }
-    val compileInfo: Keyword? by lazy { beam.compileInfo() }
-    val debugInfo: DebugInfo? by lazy { beam.debugInfo() }
-    val elixirDocumentation: ElixirDocumentation? by lazy { beam.elixirDocumentation() }
-    val exports: CallDefinitions? by lazy { beam.exports(atoms) }
-    val functions: Functions? by lazy { beam.functions(atoms) }
-    val lines: Lines? by lazy { beam.lines() }
-    val literals: Literals? by lazy { beam.literals() }
-    val locals: CallDefinitions? by lazy { beam.locals(atoms) }
-    val imports: Imports? by lazy { beam.imports(atoms) }
-    val strings: Strings? by lazy { beam.strings() }
-
-    fun chunkCollection(): Collection<Chunk> = beam.chunkCollection()
+/**
+ * @param decoded the chunks needed for indexing, either decoded from the full [Beam] or read from the
+ *   [PersistentCache].
+ * @param loadBeam loads the full [Beam] for the other chunks.  Only called if those chunks are used.
+ */
+class Cache private constructor(private val decoded: Decoded, loadBeam: () -> Beam?) {
+    private val beam: Beam? by lazy(loadBeam)
+
+    val atoms: Atoms? = decoded.atoms
+    val attributes: Keyword? by lazy { beam?.attributes() }
+    val code: Code? by lazy { beam?.code() }
+    val compileInfo: Keyword? by lazy { beam?.compileInfo() }
+    val debugInfo: DebugInfo? by lazy { beam?.debugInfo() }
+    val elixirDocumentation: ElixirDocumentation? by lazy { beam?.elixirDocumentation() }
+    val exports: CallDefinitions? = decoded.exports
+    val functions: Functions? by lazy { beam?.functions(atoms) }
+    val lines: Lines? by lazy { beam?.lines() }
+
+    /**
+     * The [Lines.fileNameList] without decoding the rest of [lines]
+     */
+    val lineFileNames: List<String>? = decoded.lineFileNames
+    val literals: Literals? by lazy { beam?.literals() }
+    val locals: CallDefinitions? = decoded.locals
+    val imports: Imports? = decoded.imports
+    val strings: Strings? by lazy { beam?.strings() }
+
+    fun chunkCollection(): Collection<Chunk> = beam?.chunkCollection() ?: emptyList()
 
     companion object {
         private val KEY = Key.create<Pair<Long, Cache?>>("beam.cache")
+        private val LOGGER = Logger.getInstance(Cache::class.java)
+
+        fun from(fileContent: FileContent): Cache? {
+            val content = fileContent.content
+            val path = fileContent.file.path
+
+            return from(content, path) { Beam.from(content, path) }
+        }
 
-        fun from(fileContent: FileContent) = from(fileContent.file)
         fun from(virtualFile: VirtualFile): Cache? {
             val currentModificationCount = virtualFile.modificationCount
 
@@ -35,11 +57,44 @@ class Cache private constructor(private val beam: Beam) {
                 } else {
                     null
                 }
-            } ?: Beam.from(virtualFile)?.let(::Cache)
+            } ?: contentsToByteArray(virtualFile)?.let { content ->
+                from(content, virtualFile.path) { Beam.from(virtualFile) }
+            }
 
             virtualFile.putUserData(KEY, Pair(currentModificationCount, cache))
 
             return cache
         }
+
+        private fun from(content: ByteArray, path: String, loadBeam: () -> Beam?): Cache? {
+            val name = "${PersistentCache.contentHash(content)}.decoded"
+
+            return PersistentCache.read(name)
+                ?.let { bytes ->
+                    Decoded.from(bytes).also { decoded ->
+                        if (decoded == null) {
+                            LOGGER.warn("Evicting corrupt BEAM cache entry $name for $path")
+                            PersistentCache.delete(name)
+                        }
+                    }
+                }
+                ?.let { decoded -> Cache(decoded, loadBeam) }
+                ?: Beam.from(content, path)?.let { beam ->
+                    val decoded = Decoded.from(beam)
+
+                    PersistentCache.write(name, decoded.toByteArray())
+
+                    Cache(decoded) { beam }
+                }
+        }
+
+        private fun contentsToByteArray(virtualFile: VirtualFile): ByteArray? =
+            try {
+                virtualFile.contentsToByteArray()
+            } catch (ioException: IOException) {
+                LOGGER.warn("Could not read contents of ${virtualFile.path}", ioException)
+
+                null
+            }
     }
 }
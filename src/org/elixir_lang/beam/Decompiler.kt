@@ -1,8 +1,11 @@
 package org.elixir_lang.beam
 
 import com.ericsson.otp.erlang.OtpErlangBinary
+import com.intellij.ide.plugins.PluginManagerCore
 import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.extensions.PluginId
 import com.intellij.openapi.fileTypes.BinaryFileDecompiler
+import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.vfs.VirtualFile
 import org.elixir_lang.NameArity
 import org.elixir_lang.beam.Beam.Companion.from
@@ -25,13 +28,35 @@ import org.elixir_lang.psi.call.name.Function
 import org.elixir_lang.psi.call.name.Function.*
 import org.elixir_lang.psi.call.name.Module
 import org.elixir_lang.reference.resolver.Type.BUILTIN_ARITY_BY_NAME
+import java.io.IOException
 import java.util.*
 
 class Decompiler : BinaryFileDecompiler {
-    override fun decompile(virtualFile: VirtualFile): CharSequence = decompiled(from(virtualFile))
+    override fun decompile(virtualFile: VirtualFile): CharSequence =
+        contentsToByteArray(virtualFile)
+            ?.let { content -> decompiled(content, virtualFile.path) }
+            ?: decompiled(from(virtualFile))
 
     companion object {
         private val logger = Logger.getInstance(Decompiler::class.java)
+
+        /**
+         * Increment when the decompiled text changes in a way not covered by the plugin version, such as while
+         * developing the decompiler between releases.
+         */
+        private const val VERSION = 1
+
+        /**
+         * Part of the [PersistentCache] entry name for decompiled text, so that entries from a different
+         * [MACRO_NAME_ARITY_DECOMPILER_LIST] or plugin release, which may decompile differently, are never used.
+         */
+        private val cacheVersion: String by lazy {
+            val pluginVersion = PluginManagerCore.getPlugin(PluginId.getId("org.elixir_lang"))?.version
+            val decompilers = MACRO_NAME_ARITY_DECOMPILER_LIST.joinToString(",") { it.javaClass.name }
+
+            Integer.toHexString("$VERSION/$pluginVersion/$decompilers".hashCode())
+        }
+
         private val HEADER_NAME_BY_MACRO: Map<String, String> = mapOf(
             Function.DEFMACRO to "Macros",
             Function.DEFMACROP to "Private Macros",
@@ -48,6 +73,31 @@ class Decompiler : BinaryFileDecompiler {
 
         private const val DECOMPILATION_ERROR = "# Decompilation Error: "
 
+        /**
+         * Decompiled text of the `.beam` file [content] from the [PersistentCache], so that BEAMs that don't change
+         * between sessions, such as those in OTP and the SDK, are only decompiled once.
+         */
+        private fun decompiled(content: ByteArray, path: String): CharSequence {
+            val name = "${PersistentCache.contentHash(content)}.$cacheVersion.ex"
+
+            return PersistentCache.read(name)?.let { String(it, Charsets.UTF_8) }
+                ?: decompiled(from(content, path)).also { decompiled ->
+                    // errors may be from the BEAM being read while it was being written, so don't make them stick
+                    if (!decompiled.startsWith(DECOMPILATION_ERROR)) {
+                        PersistentCache.write(name, decompiled.toString().toByteArray(Charsets.UTF_8))
+                    }
+                }
+        }
+
+        private fun contentsToByteArray(virtualFile: VirtualFile): ByteArray? =
+            try {
+                virtualFile.contentsToByteArray()
+            } catch (ioException: IOException) {
+                logger.warn("Could not read contents of ${virtualFile.path}", ioException)
+
+                null
+            }
+
         private fun decompiled(beam: Beam?): CharSequence {
             val decompiled = StringBuilder()
 
@@ -247,12 +297,17 @@ class Decompiler : BinaryFileDecompiler {
             documentation: Documentation?
         ) {
             val options = options(macroNameAritySortedSetByMacro)
+            val specByNameArity = specByNameArity(debugInfo)
+            // shared between definitions, so that a definition that is too long can be replaced before it is appended
+            val definition = StringBuilder()
 
             for (macro in MACRO_ORDER) {
                 val macroNameAritySortedSet = macroNameAritySortedSetByMacro[macro]
 
                 if (macroNameAritySortedSet != null && options.decompileMacro(macro)) {
                     for ((index, macroNameArity) in macroNameAritySortedSet.withIndex()) {
+                        ProgressManager.checkCanceled()
+
                         if (index == 0) {
                             appendHeader(decompiled, macroToHeaderName(macro))
                         }
@@ -292,8 +347,23 @@ class Decompiler : BinaryFileDecompiler {
                                 }
                             }
                         }
-                        appendSpec(decompiled, macroNameArity, debugInfo, options)
-                        appendMacroNameArity(decompiled, macroNameArity, debugInfo, documentation, options)
+
+                        definition.setLength(0)
+                        appendSpec(definition, specByNameArity[macroNameArity.name to macroNameArity.arity], options)
+
+                        if (!options.truncateDecompiledDefinition(definition)) {
+                            appendMacroNameArity(definition, macroNameArity, debugInfo, documentation, options)
+                        }
+
+                        if (options.truncateDecompiledDefinition(definition)) {
+                            decompiled
+                                .append("  # Definition not decompiled: longer than ")
+                                .append(options.decompiledDefinitionLengthLimit)
+                                .append(" characters\n")
+                            appendMacroNameArity(decompiled, macroNameArity, documentation)
+                        } else {
+                            decompiled.append(definition)
+                        }
                     }
                 }
             }
@@ -393,34 +463,30 @@ class Decompiler : BinaryFileDecompiler {
             }
         }
 
-        private fun appendSpec(
-            decompiled: StringBuilder,
-            macroNameArity: MacroNameArity,
-            debugInfo: DebugInfo?,
-            options: Options
-        ) {
+        /**
+         * `@spec`s by name and arity, so that finding the `@spec` for each call definition doesn't scan all the
+         * attributes.
+         */
+        private fun specByNameArity(debugInfo: DebugInfo?): Map<Pair<String, Int>, Spec> =
             when (debugInfo) {
-                is AbstractCodeCompileOptions -> appendSpec(decompiled, macroNameArity, debugInfo, options)
-                else -> Unit
+                is AbstractCodeCompileOptions ->
+                    debugInfo.attributes.macroStringAttributes.filterIsInstance<Spec>().fold(mutableMapOf()) { acc, spec ->
+                        val name = spec.name
+                        val arity = spec.arity
+
+                        if (name != null && arity != null) {
+                            acc.putIfAbsent(name to arity.toInt(), spec)
+                        }
+
+                        acc
+                    }
+                else -> emptyMap()
             }
-        }
 
-        private fun appendSpec(
-            decompiled: StringBuilder,
-            macroNameArity: MacroNameArity,
-            debugInfo: AbstractCodeCompileOptions,
-            options: Options
-        ) {
-            debugInfo
-                .attributes.macroStringAttributes
-                .find {
-                    it is Spec &&
-                            it.name == macroNameArity.name &&
-                            it.arity == macroNameArity.arity.toBigInteger()
-                }
-                ?.let { spec ->
-                    decompiled.append(spec.toMacroString(options).prependIndentToNonBlank()).append('\n')
-                }
+        private fun appendSpec(decompiled: StringBuilder, spec: Spec?, options: Options) {
+            if (spec != null) {
+                decompiled.appendIndentedToNonBlank(spec.toMacroString(options)).append('\n')
+            }
         }
 
         private fun appendMacroNameArity(
@@ -458,7 +524,7 @@ class Decompiler : BinaryFileDecompiler {
                     val function = debugInfo.functions.byNameArity[macroNameArity.toNameArity()]
 
                     if (function != null) {
-                        decompiled.append(function.toMacroString(options).prependIndentToNonBlank()).append('\n')
+                        appendClauses(decompiled, function.clauseMacroStrings(options), options)
 
                         true
                     } else {
@@ -474,12 +540,44 @@ class Decompiler : BinaryFileDecompiler {
             debugInfo: org.elixir_lang.beam.chunk.debug_info.v1.elixir_erl.V1,
             options: Options
         ): Boolean =
-            debugInfo.definitions?.get(macroNameArity)?.toMacroString(options)?.let { macroString ->
-                decompiled.append(macroString.prependIndentToNonBlank()).append('\n')
-
-                true
+            debugInfo.definitions?.get(macroNameArity)?.clauseMacroStrings(options)?.let { clauseMacroStrings ->
+                appendClauses(decompiled, clauseMacroStrings, options)
             } ?: false
 
+        /**
+         * Appends [clauseMacroStrings] indented and separated by blank lines, but stops rendering clauses as soon as
+         * [decompiled] is longer than [Options.decompiledDefinitionLengthLimit], as the definition will be replaced
+         * anyway.
+         *
+         * @return `true` if any clause was appended
+         */
+        private fun appendClauses(
+            decompiled: StringBuilder,
+            clauseMacroStrings: Sequence<String>,
+            options: Options
+        ): Boolean {
+            var appended = false
+
+            for (clauseMacroString in clauseMacroStrings) {
+                if (appended) {
+                    decompiled.append("\n\n")
+                }
+
+                decompiled.appendIndentedToNonBlank(clauseMacroString)
+                appended = true
+
+                if (options.truncateDecompiledDefinition(decompiled)) {
+                    break
+                }
+            }
+
+            if (appended) {
+                decompiled.append('\n')
+            }
+
+            return appended
+        }
+
         private fun appendMacroNameArity(
             decompiled: StringBuilder,
             macroNameArity: MacroNameArity,
@@ -549,12 +647,43 @@ class Decompiler : BinaryFileDecompiler {
     }
 }
 
-fun String.prependIndentToNonBlank(indent: String = "  "): String =
-    lineSequence()
-        .map {
-            when {
-                it.isBlank() -> it
-                else -> indent + it
+/**
+ * Appends [string] with [indent] prepended to each non-blank line without building the indented copy of [string].
+ *
+ * Like [lineSequence], `\r\n`, `\n`, and `\r` all end a line, and each is appended as `\n`.
+ */
+fun StringBuilder.appendIndentedToNonBlank(string: String, indent: String = "  "): StringBuilder {
+    var lineStart = 0
+
+    while (true) {
+        var lineEnd = lineStart
+        var blank = true
+
+        while (lineEnd < string.length && string[lineEnd] != '\n' && string[lineEnd] != '\r') {
+            if (!string[lineEnd].isWhitespace()) {
+                blank = false
             }
+
+            lineEnd++
+        }
+
+        if (!blank) {
+            append(indent)
+        }
+
+        append(string, lineStart, lineEnd)
+
+        if (lineEnd == string.length) {
+            break
+        }
+
+        append('\n')
+        lineStart = if (string[lineEnd] == '\r' && lineEnd + 1 < string.length && string[lineEnd + 1] == '\n') {
+            lineEnd + 2
+        } else {
+            lineEnd + 1
         }
-        .joinToString("\n")
+    }
+
+    return this
+}
@@ -0,0 +1,140 @@
+package org.elixir_lang.beam
+
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.text.StringUtil
+import java.io.File
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Entries derived from `.beam` files that survive IDE restarts, so that OTP, SDK and `_build` BEAMs, which don't
+ * change between sessions, aren't re-read and re-decoded on every start.
+ *
+ * Entries are keyed by the [contentHash] of the `.beam` file, so a changed file never sees a stale entry.  The total
+ * size of the entries is bounded by [MAX_SIZE]: when it is exceeded, the least recently used entries are deleted.
+ */
+object PersistentCache {
+    private val LOGGER = Logger.getInstance(PersistentCache::class.java)
+
+    private val directory: File by lazy {
+        File(PathManager.getSystemPath(), "elixir/beam_cache/v$VERSION").apply { mkdirs() }
+    }
+
+    private val size: AtomicLong by lazy {
+        AtomicLong(entries().sumOf { it.length() })
+    }
+
+    /**
+     * Hex-encoded SHA-1 of [content]
+     */
+    fun contentHash(content: ByteArray): String =
+        StringUtil.toHexString(MessageDigest.getInstance("SHA-1").digest(content))
+
+    /**
+     * @param name file name of the entry, usually a [contentHash] with an extension for the kind of entry
+     * @return `null` if there is no entry or it could not be read
+     */
+    fun read(name: String): ByteArray? {
+        val file = File(directory, name)
+
+        return if (file.isFile) {
+            try {
+                file.readBytes().also {
+                    // track use for least recently used eviction
+                    file.setLastModified(System.currentTimeMillis())
+                }
+            } catch (ioException: IOException) {
+                LOGGER.warn("Could not read BEAM cache entry ${file.path}", ioException)
+
+                null
+            }
+        } else {
+            null
+        }
+    }
+
+    fun write(name: String, bytes: ByteArray) {
+        val file = File(directory, name)
+
+        try {
+            // write to a temporary file and move, so that concurrent readers never see a partial entry
+            val temporary = File.createTempFile(name, TEMPORARY_SUFFIX, directory)
+            temporary.writeBytes(bytes)
+            val replacedLength = file.length()
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+
+            // an entry written concurrently for the same content is replaced, not added
+            size.addAndGet(bytes.size - replacedLength)
+        } catch (ioException: IOException) {
+            LOGGER.warn("Could not write BEAM cache entry ${file.path}", ioException)
+
+            return
+        }
+
+        if (size.get() > MAX_SIZE) {
+            evict()
+        }
+    }
+
+    /**
+     * Deletes the entry, such as when it could not be decoded, so that it is rewritten instead of read again.
+     */
+    fun delete(name: String) {
+        val file = File(directory, name)
+        val length = file.length()
+
+        if (file.delete()) {
+            size.addAndGet(-length)
+        }
+    }
+
+    @Synchronized
+    private fun evict() {
+        if (size.get() > MAX_SIZE) {
+            var evictedSize = size.get()
+
+            for (entry in entries().sortedBy(File::lastModified)) {
+                if (evictedSize <= EVICTED_SIZE) {
+                    break
+                }
+
+                val length = entry.length()
+
+                if (entry.delete()) {
+                    evictedSize -= length
+                }
+            }
+
+            size.set(entries().sumOf { it.length() })
+        }
+    }
+
+    /**
+     * Temporary files left by a crash during [write] are not entries, so they are deleted instead of counted.
+     */
+    private fun entries(): List<File> =
+        directory.listFiles()?.filter { file ->
+            if (file.name.endsWith(TEMPORARY_SUFFIX)) {
+                if (System.currentTimeMillis() - file.lastModified() > ABANDONED_TEMPORARY_AGE) {
+                    file.delete()
+                }
+
+                false
+            } else {
+                file.isFile
+            }
+        } ?: emptyList()
+
+    /**
+     * Increment when the format of any entry changes, so that entries in the old format are ignored.
+     */
+    private const val VERSION = 2
+    private const val TEMPORARY_SUFFIX = ".tmp"
+    private const val ABANDONED_TEMPORARY_AGE: Long = 60L * 60 * 1000
+    private const val MAX_SIZE: Long = 256L * 1024 * 1024
+    private const val EVICTED_SIZE: Long = MAX_SIZE * 3 / 4
+}
@@ -30,6 +30,6 @@ class StubBuilder : BinaryFileStubBuilder {
 
     companion object {
         private val LOGGER = Logger.getInstance(StubBuilder::class.java)
-        private const val STUB_VERSION = 1
+        private const val STUB_VERSION = 3
     }
 }
@@ -0,0 +1,160 @@
+package org.elixir_lang.beam.cache
+
+import org.elixir_lang.beam.Beam
+import org.elixir_lang.beam.chunk.Atoms
+import org.elixir_lang.beam.chunk.CallDefinitions
+import org.elixir_lang.beam.chunk.Chunk.TypeID
+import org.elixir_lang.beam.chunk.Imports
+import org.elixir_lang.beam.chunk.atoms.Atom
+import org.elixir_lang.beam.chunk.call_definitions.CallDefinition
+import org.elixir_lang.beam.chunk.imports.Import
+import java.io.*
+
+/**
+ * The already decoded chunks of a `.beam` file that are needed to index it, stored in the
+ * [org.elixir_lang.beam.PersistentCache], so that a hit doesn't decode any chunks.
+ *
+ * The format is a [DataOutputStream] of each table prefixed by its size, or `-1` if the chunk was missing.  Atom and
+ * call definition indices are written as the unsigned 32-bit integers they are in the chunks.
+ */
+class Decoded(
+    val atoms: Atoms?,
+    val exports: CallDefinitions?,
+    val imports: Imports?,
+    val locals: CallDefinitions?,
+    val lineFileNames: List<String>?
+) {
+    fun toByteArray(): ByteArray {
+        val byteArrayOutputStream = ByteArrayOutputStream()
+
+        DataOutputStream(byteArrayOutputStream).use { output ->
+            writeAtoms(output, atoms)
+            writeCallDefinitions(output, exports)
+            writeImports(output, imports)
+            writeCallDefinitions(output, locals)
+            writeStrings(output, lineFileNames)
+        }
+
+        return byteArrayOutputStream.toByteArray()
+    }
+
+    companion object {
+        private const val MISSING = -1
+
+        fun from(beam: Beam): Decoded {
+            val atoms = beam.atoms()
+
+            return Decoded(atoms, beam.exports(atoms), beam.imports(atoms), beam.locals(atoms), beam.lines()?.fileNameList)
+        }
+
+        /**
+         * @return `null` if [bytes] are truncated or corrupt, so that the entry is treated as a miss
+         */
+        fun from(bytes: ByteArray): Decoded? =
+            try {
+                DataInputStream(ByteArrayInputStream(bytes)).use { input ->
+                    val atoms = readAtoms(input)
+
+                    Decoded(
+                        atoms,
+                        readCallDefinitions(input, TypeID.EXPT, atoms),
+                        readImports(input, atoms),
+                        readCallDefinitions(input, TypeID.LOCT, atoms),
+                        readStrings(input)
+                    )
+                }
+            } catch (ioException: IOException) {
+                // includes `EOFException` for truncated and `UTFDataFormatException` for corrupt entries
+                null
+            } catch (runtimeException: RuntimeException) {
+                // corrupt sizes or indices, such as a negative list size
+                null
+            }
+
+        private fun writeAtoms(output: DataOutputStream, atoms: Atoms?) {
+            if (atoms != null) {
+                output.writeInt(atoms.size())
+
+                // atom indices are 1-based
+                for (index in 1..atoms.size()) {
+                    val atom = atoms[index]
+
+                    output.writeShort(atom.byteCount)
+                    output.writeUTF(atom.string)
+                }
+            } else {
+                output.writeInt(MISSING)
+            }
+        }
+
+        private fun readAtoms(input: DataInputStream): Atoms? =
+            readList(input) { index ->
+                val byteCount = input.readUnsignedShort()
+
+                Atom(index + 1, byteCount, input.readUTF())
+            }?.let(::Atoms)
+
+        private fun writeCallDefinitions(output: DataOutputStream, callDefinitions: CallDefinitions?) {
+            if (callDefinitions != null) {
+                output.writeInt(callDefinitions.size())
+
+                for (callDefinition in callDefinitions.callDefinitionCollection) {
+                    output.writeInt(callDefinition.atomIndex.toInt())
+                    output.writeInt(callDefinition.arity.toInt())
+                    output.writeInt(callDefinition.label.toInt())
+                }
+            } else {
+                output.writeInt(MISSING)
+            }
+        }
+
+        private fun readCallDefinitions(input: DataInputStream, typeID: TypeID, atoms: Atoms?): CallDefinitions? =
+            readList(input) {
+                CallDefinition(readUnsignedInt(input), readUnsignedInt(input), readUnsignedInt(input), atoms)
+            }?.let { CallDefinitions(typeID, it) }
+
+        private fun writeImports(output: DataOutputStream, imports: Imports?) {
+            if (imports != null) {
+                output.writeInt(imports.size())
+
+                for (index in 0 until imports.size()) {
+                    val import = imports[index]
+
+                    output.writeInt(import.moduleAtomIndex.toInt())
+                    output.writeInt(import.functionAtomIndex.toInt())
+                    output.writeInt(import.arity.toInt())
+                }
+            } else {
+                output.writeInt(MISSING)
+            }
+        }
+
+        private fun readImports(input: DataInputStream, atoms: Atoms?): Imports? =
+            readList(input) {
+                Import(readUnsignedInt(input), readUnsignedInt(input), readUnsignedInt(input), atoms)
+            }?.let(::Imports)
+
+        private fun writeStrings(output: DataOutputStream, strings: List<String>?) {
+            if (strings != null) {
+                output.writeInt(strings.size)
+                strings.forEach(output::writeUTF)
+            } else {
+                output.writeInt(MISSING)
+            }
+        }
+
+        private fun readStrings(input: DataInputStream): List<String>? = readList(input) { input.readUTF() }
+
+        private fun <T> readList(input: DataInputStream, readElement: (index: Int) -> T): List<T>? {
+            val size = input.readInt()
+
+            return if (size == MISSING) {
+                null
+            } else {
+                List(size, readElement)
+            }
+        }
+
+        private fun readUnsignedInt(input: DataInputStream): Long = input.readInt().toLong() and 0xFFFFFFFFL
+    }
+}
@@ -6,7 +6,7 @@ import org.elixir_lang.beam.chunk.atoms.Atom
 import java.nio.charset.Charset
 import java.util.*
 
-class Atoms private constructor(private val atomList: List<Atom>) {
+class Atoms(private val atomList: List<Atom>) {
 
     /**
      * @param index 1-based index.  1 is reserved for {#link moduleName}
@@ -24,7 +24,7 @@ class Atoms private constructor(private val atomList: List<Atom>) {
         fun from(chunk: Chunk, typeID: Chunk.TypeID, charset: Charset): Atoms? {
             var atoms: Atoms? = null
 
-            if (chunk.typeID == typeID.toString() && chunk.data.size >= 4) {
+            if (chunk.typeID == typeID.toString() && chunk.size >= 4) {
                 var offset = 0
                 val atomCountByteCount = unsignedInt(chunk.data, offset)
                 val atomCount = atomCountByteCount.first
@@ -44,7 +44,7 @@ class CallDefinitions(private val typeID: TypeID, var callDefinitionCollection:
             mapOf(TypeID.EXPT to Visibility.PUBLIC, TypeID.LOCT to Visibility.PRIVATE)
 
         fun from(chunk: Chunk, typeID: TypeID, atoms: Atoms?): CallDefinitions? =
-            if (chunk.typeID == typeID.toString() && chunk.data.size >= 4) {
+            if (chunk.typeID == typeID.toString() && chunk.size >= 4) {
                 val callDefinitionCollection: MutableCollection<CallDefinition> = THashSet()
                 var offset = 0
                 val exportCountByteCount = unsignedInt(chunk.data, 0)
@@ -2,13 +2,26 @@ package org.elixir_lang.beam.chunk
 
 import com.intellij.openapi.util.Pair
 import org.jetbrains.annotations.Contract
-import java.io.DataInputStream
 import java.io.IOException
+import java.nio.BufferUnderflowException
+import java.nio.ByteBuffer
 
 /**
  * Chunk of a `.beam` file.  Same chunk format as base IFF
+ *
+ * @param view the chunk's data as a view into the contents of the whole `.beam` file.  The bytes are only copied into
+ *   [data] when the chunk is decoded.
  */
-class Chunk private constructor(@JvmField val typeID: String, @JvmField val data: ByteArray) {
+class Chunk private constructor(@JvmField val typeID: String, private val view: ByteBuffer) {
+    /**
+     * The number of bytes in [data], available without copying the chunk's data.
+     */
+    val size: Int = view.remaining()
+
+    val data: ByteArray by lazy {
+        ByteArray(size).also { view.duplicate().get(it) }
+    }
+
     enum class TypeID(private val typeID: String) {
         ATOM("Atom"),
         ATTR("Attr"),
@@ -37,26 +50,41 @@ class Chunk private constructor(@JvmField val typeID: String, @JvmField val data
         private const val UNSIGNED_INT_BYTE_COUNT = 4
         private const val UNSIGNED_SHORT_BYTE_COUNT = 2
 
-        fun from(dataInputStream: DataInputStream): Chunk? =
-                typeID(dataInputStream)?.let { typeID ->
-                    length(dataInputStream)?.let { length ->
-                        dataInputStream.safeReadBytes(length.toInt())?.let { data ->
-                            val padding = ((ALIGNMENT - length % ALIGNMENT) % ALIGNMENT).toInt()
-                            dataInputStream.skipBytes(padding)
-                            Chunk(typeID, data)
+        /**
+         * Reads the chunk at the [ByteBuffer.position] of [byteBuffer] as a view over [byteBuffer], so the chunk's data
+         * is not copied until it is decoded.  [ByteBuffer.position] is advanced past the chunk and its padding.
+         *
+         * @return `null` if there are no more chunks
+         * @throws IOException if the chunk's length is longer than the bytes remaining in [byteBuffer]
+         */
+        @Throws(IOException::class)
+        fun from(byteBuffer: ByteBuffer): Chunk? =
+                typeID(byteBuffer)?.let { typeID ->
+                    length(byteBuffer)?.let { length ->
+                        if (length > byteBuffer.remaining()) {
+                            throw IOException(
+                                    "$typeID chunk length ($length) is longer than remaining bytes " +
+                                            "(${byteBuffer.remaining()})"
+                            )
                         }
+
+                        val view = byteBuffer.slice()
+                        view.limit(length.toInt())
+
+                        val padding = ((ALIGNMENT - length % ALIGNMENT) % ALIGNMENT).toInt()
+                        byteBuffer.position(minOf(byteBuffer.position() + length.toInt() + padding, byteBuffer.limit()))
+
+                        Chunk(typeID, view)
                     }
                 }
 
-        fun length(dataInputStream: DataInputStream): Long? = readUnsignedInt(dataInputStream)
-
-        private fun readUnsignedInt(dataInputStream: DataInputStream): Long? =
-            dataInputStream.safeReadBytes(32 / 8)?.let { bytes ->
-                unsignedInt(bytes).first
-            }
+        fun length(byteBuffer: ByteBuffer): Long? =
+                byteBuffer.safeGetBytes(UNSIGNED_INT_BYTE_COUNT)?.let { bytes ->
+                    unsignedInt(bytes).first
+                }
 
-        fun typeID(dataInputStream: DataInputStream): String? =
-                dataInputStream.safeReadBytes(4)?.let { bytes ->
+        fun typeID(byteBuffer: ByteBuffer): String? =
+                byteBuffer.safeGetBytes(4)?.let { bytes ->
                     String(bytes)
                 }
 
@@ -90,14 +118,14 @@ class Chunk private constructor(@JvmField val typeID: String, @JvmField val data
     }
 }
 
-fun DataInputStream.safeReadBytes(count: Int): ByteArray? {
+fun ByteBuffer.safeGetBytes(count: Int): ByteArray? {
     val bytes = ByteArray(count)
 
     return try {
-        readFully(bytes)
+        get(bytes)
 
         bytes
-    } catch (ioException: IOException) {
+    } catch (bufferUnderflowException: BufferUnderflowException) {
         null
     }
 }
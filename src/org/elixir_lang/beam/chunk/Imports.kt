@@ -12,7 +12,7 @@ class Imports(private val importList: List<Import>) {
 
     companion object {
         fun from(chunk: Chunk, atoms: Atoms?): Imports? =
-                if (chunk.typeID == Chunk.TypeID.IMPT.toString() && chunk.data.size >= 4) {
+                if (chunk.typeID == Chunk.TypeID.IMPT.toString() && chunk.size >= 4) {
                     var offset = 0
                     val (importCount, importCountByteCount) = unsignedInt(chunk.data, offset)
                     offset += importCountByteCount
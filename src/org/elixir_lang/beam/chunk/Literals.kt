@@ -7,12 +7,26 @@ import com.intellij.openapi.util.component2
 import org.elixir_lang.beam.chunk.Chunk.Companion.unsignedInt
 import org.elixir_lang.beam.chunk.literals.literal
 import org.elixir_lang.beam.term.unsignedIntToInt
+import java.lang.ref.SoftReference
 import java.util.zip.Inflater
 
-class Literals(private val termList: List<OtpErlangObject>) {
-    operator fun get(index: Int): OtpErlangObject = termList[index]
-    fun getOrNull(index: Int): OtpErlangObject? = termList.getOrNull(index)
-    fun size(): Int = termList.size
+/**
+ * The literal table from the `LitT` chunk.  Only the offset of each literal is recorded when the chunk is read: terms
+ * are decoded on access and kept softly, so that modules with huge literal pools don't hold every decoded term.
+ *
+ * @param inflated the inflated `LitT` chunk data
+ * @param offsets the offset in [inflated] of each literal's byte count
+ */
+class Literals private constructor(private val inflated: ByteArray, private val offsets: IntArray) {
+    private val termReferences = arrayOfNulls<SoftReference<OtpErlangObject>>(offsets.size)
+
+    operator fun get(index: Int): OtpErlangObject =
+        termReferences[index]?.get() ?: literal(inflated, offsets[index]).first.also { term ->
+            termReferences[index] = SoftReference(term)
+        }
+
+    fun getOrNull(index: Int): OtpErlangObject? = if (index in offsets.indices) get(index) else null
+    fun size(): Int = offsets.size
 
     companion object {
         val LOGGER = Logger.getInstance(Literals::class.java)
@@ -45,21 +59,25 @@ class Literals(private val termList: List<OtpErlangObject>) {
             }
         }
 
+        /**
+         * Records the offset of each literal by skipping over its byte count, so that no term is decoded.
+         */
         private fun fromInflated(inflated: ByteArray, offset: Int): Literals? {
             var internalOffset = offset
 
             val (count, countByteCount) = unsignedInt(inflated, internalOffset)
             internalOffset += countByteCount
 
-            val termList = mutableListOf<OtpErlangObject>()
+            val offsets = IntArray(unsignedIntToInt(count))
+
+            for (index in offsets.indices) {
+                offsets[index] = internalOffset
 
-            repeat(unsignedIntToInt(count)) {
-                val (literal, literalByteCount) = literal(inflated, internalOffset)
-                termList.add(literal)
-                internalOffset += literalByteCount
+                val (termByteCount, termByteCountByteCount) = unsignedInt(inflated, internalOffset)
+                internalOffset += termByteCountByteCount + unsignedIntToInt(termByteCount)
             }
 
-            return Literals(termList)
+            return Literals(inflated, offsets)
         }
     }
 
@@ -44,12 +44,20 @@ class Definition(
     }
 
     fun toMacroString(options: Options): String? =
-            clauses
-                    ?.takeIf { it.size < options.clauseLimit }
-                    ?.mapNotNull {  it.toMacroString(options) }
+            clauseMacroStrings(options)
+                    ?.toList()
                     ?.takeIf(List<String>::isNotEmpty)
                     ?.joinToString("\n\n")
 
+    /**
+     * Renders each clause only when it is iterated, so that rendering can stop once the definition is too long.
+     */
+    fun clauseMacroStrings(options: Options): Sequence<String>? =
+            clauses
+                    ?.takeIf { it.size < options.clauseLimit }
+                    ?.asSequence()
+                    ?.mapNotNull { it.toMacroString(options) }
+
     companion object {
         fun from(term: OtpErlangObject, debugInfo: V1): Definition? =
             if (term is OtpErlangTuple) {
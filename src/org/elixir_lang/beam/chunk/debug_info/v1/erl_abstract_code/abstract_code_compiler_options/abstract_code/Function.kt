@@ -31,7 +31,13 @@ class Function(term: OtpErlangTuple, attributes: Attributes): Node(term) {
     val decompiler by lazy { Decompiler.decompiler("erlang", macroNameArity.toNameArity()) ?: Default.INSTANCE }
 
     override fun toMacroString(options: Options): String =
-            clauses.joinToString("\n\n") { it.toMacroString(options) }
+            clauseMacroStrings(options).joinToString("\n\n")
+
+    /**
+     * Renders each clause only when it is iterated, so that rendering can stop once the definition is too long.
+     */
+    fun clauseMacroStrings(options: Options): Sequence<String> =
+            clauses.asSequence().map { it.toMacroString(options) }
 
     companion object {
         fun from(term: OtpErlangObject, attributes: Attributes): Function? =
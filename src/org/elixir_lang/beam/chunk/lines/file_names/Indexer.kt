@@ -7,10 +7,9 @@ import org.elixir_lang.beam.Cache
 class Indexer: DataIndexer<String, Void, FileContent> {
     override fun map(inputData: FileContent): Map<String, Void?> =
         Cache.Companion.from(inputData)?.let { cache ->
-            cache.lines?.let { lines ->
+            cache.lineFileNames?.let { fileNameList ->
                 // Drop "invalid"
-                lines
-                        .fileNameList
+                fileNameList
                         .drop(1)
                         .associate { Pair(it, null) }
             }
@@ -5,7 +5,10 @@ import org.elixir_lang.psi.call.name.Function.*
 data class Options(val decompileMacros: Set<String> = setOf(DEFMACRO, DEFMACROP, DEF, DEFP),
                    val decompileBodies: Boolean = false,
                    val decompiledBodyLengthLimit: Int = 1024,
-                   val clauseLimit: Int = 10) {
+                   val clauseLimit: Int = 10,
+                   val decompiledDefinitionLengthLimit: Int = 16 * 1024) {
     fun decompileMacro(macro: String): Boolean = macro in decompileMacros
     fun truncateDecompiledBody(decompileBody: String): Boolean = decompileBody.length > decompiledBodyLengthLimit
+    fun truncateDecompiledDefinition(decompiledDefinition: CharSequence): Boolean =
+            decompiledDefinition.length > decompiledDefinitionLengthLimit
 }
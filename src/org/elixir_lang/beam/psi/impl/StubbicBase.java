@@ -4,8 +4,10 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.stubs.StubBase;
 import com.intellij.psi.stubs.StubElement;
 import org.elixir_lang.beam.psi.stubs.ModuleElementType;
+import org.elixir_lang.psi.ArityInterval;
 import org.elixir_lang.psi.stub.call.Stubbic;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.Set;
@@ -69,4 +71,25 @@ public abstract class StubbicBase<T extends PsiElement> extends StubBase<T> impl
         return HAS_DO_BLOCK_OR_KEYWORD;
     }
 
+    /**
+     * Decompiled definitions are found through their {@link ModuleImpl}, so they are not indexed by arity.
+     *
+     * @return {@code null}
+     */
+    @Nullable
+    @Override
+    public ArityInterval getCallableArityInterval() {
+        return null;
+    }
+
+    /**
+     * Decompiled modules don't keep the {@code defstruct} call, so their struct fields are not indexed.
+     *
+     * @return empty set
+     */
+    @NotNull
+    @Override
+    public Set<String> getStructFieldNameSet() {
+        return Collections.emptySet();
+    }
 }
@@ -0,0 +1,22 @@
+package org.elixir_lang.code_insight.completion.contributor;
+
+import com.intellij.codeInsight.completion.CompletionContributor;
+import com.intellij.codeInsight.completion.CompletionType;
+import org.elixir_lang.psi.ElixirFile;
+import org.elixir_lang.psi.ElixirMapArguments;
+import org.elixir_lang.psi.ElixirStructOperation;
+
+import static com.intellij.patterns.PlatformPatterns.psiElement;
+import static com.intellij.patterns.StandardPatterns.instanceOf;
+
+public class StructField extends CompletionContributor {
+    public StructField() {
+        extend(
+                CompletionType.BASIC,
+                psiElement()
+                        .inFile(instanceOf(ElixirFile.class))
+                        .inside(psiElement(ElixirMapArguments.class).withParent(ElixirStructOperation.class)),
+                new org.elixir_lang.code_insight.completion.provider.StructField()
+        );
+    }
+}
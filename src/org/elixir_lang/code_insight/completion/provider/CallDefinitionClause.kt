@@ -101,6 +101,11 @@ class CallDefinitionClause : CompletionProvider<CompletionParameters>() {
                 }
 
                 for (modular in modulars) {
+                    // stop walking modulars once the lookup list is full or the prefix has changed
+                    if (modularsResultSet.isStopped) {
+                        break
+                    }
+
                     modularsResultSet.addAllElements(
                         callDefinitionClauseLookupElements(modular)
                     )
@@ -0,0 +1,93 @@
+package org.elixir_lang.code_insight.completion.provider
+
+import com.intellij.codeInsight.completion.CompletionParameters
+import com.intellij.codeInsight.completion.CompletionProvider
+import com.intellij.codeInsight.completion.CompletionResultSet
+import com.intellij.codeInsight.lookup.LookupElementBuilder
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiPolyVariantReference
+import com.intellij.psi.StubBasedPsiElement
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.util.ProcessingContext
+import org.elixir_lang.psi.ElixirStructOperation
+import org.elixir_lang.psi.Module
+import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.QuotableKeywordPair
+import org.elixir_lang.psi.StructFields
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.StubBased
+import org.elixir_lang.psi.stub.call.Stubbic
+import org.elixir_lang.psi.stub.index.StructModularName
+
+/**
+ * Completes the keys in `%Struct{}` from the field names in the stub of the `defmodule` defining `Struct`, which are
+ * found through [StructModularName], so the file defining the struct does not need to be parsed.
+ */
+class StructField : CompletionProvider<CompletionParameters>() {
+    override fun addCompletions(
+        parameters: CompletionParameters,
+        context: ProcessingContext,
+        resultSet: CompletionResultSet
+    ) {
+        PsiTreeUtil.getParentOfType(parameters.position, ElixirStructOperation::class.java)?.let { structOperation ->
+            structOperation.alias?.let { alias ->
+                val project = structOperation.project
+                val presentFieldNameSet = presentFieldNameSet(structOperation)
+
+                for (modularName in modularNameSet(alias)) {
+                    for (modular in structModulars(project, modularName)) {
+                        for (fieldName in fieldNameSet(modular)) {
+                            if (fieldName !in presentFieldNameSet) {
+                                resultSet.addElement(
+                                    LookupElementBuilder
+                                        .create(modular, "$fieldName: ")
+                                        .withPresentableText(fieldName)
+                                        .withTypeText(modularName)
+                                )
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The canonical names of the modules that the alias resolves to, or the alias text if it doesn't resolve.
+     */
+    private fun modularNameSet(alias: PsiElement): Set<String> =
+        (alias.reference as? PsiPolyVariantReference)
+            ?.multiResolve(false)
+            ?.mapNotNull { it.element }
+            ?.filterIsInstance<StubBased<*>>()
+            ?.flatMap { it.canonicalNameSet() }
+            ?.toSet()
+            ?.takeIf { it.isNotEmpty() }
+            ?: setOf(alias.text)
+
+    private fun structModulars(project: Project, modularName: String): Collection<NamedElement> =
+        StubIndex.getElements(
+            StructModularName.KEY,
+            modularName,
+            project,
+            GlobalSearchScope.allScope(project),
+            NamedElement::class.java
+        )
+
+    /**
+     * Reads the field names from the stub if the defining file is not parsed, otherwise from the PSI.
+     */
+    private fun fieldNameSet(modular: NamedElement): Set<String> =
+        (modular as? StubBasedPsiElement<*>)?.stub?.let { it as? Stubbic }?.structFieldNameSet
+            ?: (modular as? Call)?.takeIf { Module.`is`(it) }?.let { StructFields.nameSet(it) }
+            ?: emptySet()
+
+    private fun presentFieldNameSet(structOperation: ElixirStructOperation): Set<String> =
+        PsiTreeUtil
+            .findChildrenOfType(structOperation.mapArguments, QuotableKeywordPair::class.java)
+            .filter { PsiTreeUtil.getParentOfType(it, ElixirStructOperation::class.java) == structOperation }
+            .mapTo(mutableSetOf()) { it.keywordKey.text }
+}
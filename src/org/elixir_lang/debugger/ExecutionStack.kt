@@ -21,7 +21,7 @@ import com.intellij.xdebugger.frame.XExecutionStack
 import com.intellij.xdebugger.frame.XStackFrame
 import org.elixir_lang.debugger.node.ProcessSnapshot
 
-internal class ExecutionStack(private val process: Process, private val processSnapshot: ProcessSnapshot) :
+internal class ExecutionStack(private val process: Process, val processSnapshot: ProcessSnapshot) :
         XExecutionStack(processSnapshot.pidString) {
     private val stackFrames: List<StackFrame> by lazy {
         processSnapshot.stack.map { traceElement ->
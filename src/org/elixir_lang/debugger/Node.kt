@@ -3,20 +3,25 @@ package org.elixir_lang.debugger
 import com.ericsson.otp.erlang.*
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.diagnostic.Logger
+import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.xdebugger.evaluation.XDebuggerEvaluator
 import org.elixir_lang.Clause
 import org.elixir_lang.Server
 import org.elixir_lang.beam.term.inspect
 import org.elixir_lang.debugger.node.event.Listener
 import org.elixir_lang.debugger.node.handle_cast.BreakpointReached
+import org.elixir_lang.debugger.node.handle_cast.ModuleInterpreted
+import org.elixir_lang.debugger.node.handle_cast.ModulesInterpreted
 import org.elixir_lang.debugger.node.ok_error.OKError
-import org.elixir_lang.debugger.node.ok_error_reason.OK
 import org.elixir_lang.debugger.node.ok_error_reason.OKErrorReason
 import org.elixir_lang.debugger.stack_frame.value.Factory
+import org.elixir_lang.debugger.stack_frame.value.Summary
 import org.elixir_lang.generic_server.Behaviour
 import org.elixir_lang.generic_server.handleMessage
 import org.elixir_lang.run
 import java.nio.charset.Charset
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
 
 fun otpErlangMapOf(vararg pairs: Pair<OtpErlangObject, OtpErlangObject>): OtpErlangMap {
     val map = OtpErlangMap()
@@ -49,7 +54,9 @@ class Node(
         handleCastClauses.run(OtpErlangList(arrayOf(request)))
 
     private val handleCastClauses: List<Clause> = listOf<Clause>(
-            BreakpointReached(this, eventListener)
+            BreakpointReached(this, eventListener),
+            ModuleInterpreted(eventListener),
+            ModulesInterpreted(eventListener)
     )
 
     private val local = Server("Elixir.IntelliJElixir.Debugger.Client", debuggerNodeName)
@@ -78,29 +85,41 @@ class Node(
         myLastSuspendedPid = pid
     }
 
-    fun setBreakpoint(module: OtpErlangAtom, line: Int): OKErrorReason =
-            setBreakpointRequest(module, line)
-                    .let { callDebugged(it) }
-                    .let { OKErrorReason.from(it) }!!
-
-    fun removeBreakpoint(module: OtpErlangAtom, line: Int): OK =
-            removeBreakpointRequest(module, line)
+    /**
+     * Sets all breakpoints in one call to the debugged node.  When interpreting lazily, the debugged node interprets
+     * each module with a breakpoint during the call, so the timeout allows for interpreting every distinct module.
+     *
+     * @return the result for each element of [moduleLines] in the same order
+     */
+    fun setBreakpoints(moduleLines: List<Pair<OtpErlangAtom, Int>>): List<OKErrorReason> =
+            breakpointsRequest("set_breakpoints", moduleLines)
+                    .let { request ->
+                        val moduleCount = moduleLines.distinctBy { (module, _) -> module }.size.coerceAtLeast(1)
+
+                        callDebugged(request, TIMEOUT_IN_MILLISECONDS * moduleCount)
+                    }
+                    .let { it as OtpErlangList }
+                    .map { OKErrorReason.from(it)!! }
+
+    /**
+     * Removes all breakpoints in one call to the debugged node.
+     *
+     * @return the result for each element of [moduleLines] in the same order
+     */
+    fun removeBreakpoints(moduleLines: List<Pair<OtpErlangAtom, Int>>): List<OKErrorReason> =
+            breakpointsRequest("remove_breakpoints", moduleLines)
                     .let { callDebugged(it) }
-                    .let { OKErrorReason.from(it) }
-                    .let { it as OK }
-
-    private fun setBreakpointRequest(module: OtpErlangAtom, line: Int) =
-            OtpErlangTuple(arrayOf(
-                    OtpErlangAtom("set_breakpoint"),
-                    module,
-                    OtpErlangInt(line)
-            ))
+                    .let { it as OtpErlangList }
+                    .map { OKErrorReason.from(it)!! }
 
-    private fun removeBreakpointRequest(module: OtpErlangAtom, line: Int) =
+    private fun breakpointsRequest(name: String, moduleLines: List<Pair<OtpErlangAtom, Int>>) =
             OtpErlangTuple(arrayOf(
-                    OtpErlangAtom("remove_breakpoint"),
-                    module,
-                    OtpErlangInt(line)
+                    OtpErlangAtom(name),
+                    OtpErlangList(
+                            moduleLines
+                                    .map { (module, line) -> OtpErlangTuple(arrayOf(module, OtpErlangInt(line))) }
+                                    .toTypedArray<OtpErlangObject>()
+                    )
             ))
 
     fun interpret(module: OtpErlangAtom): OKError =
@@ -114,16 +133,27 @@ class Node(
                     module
             ))
 
-    fun interpret(sdkPaths: Iterable<String>, doNotInterpretPatterns: Iterable<String>): org.elixir_lang.debugger.node.ok_error.OK =
-            interpretRequest(sdkPaths, doNotInterpretPatterns)
+    /**
+     * @param lazy only interpret modules when a breakpoint is set in them or they are stepped into.  When `false`, all
+     *   modules not in [sdkPaths] or matching [doNotInterpretPatterns] are interpreted after this returns, the time
+     *   for each module is sent to [Listener.moduleInterpreted], and [Listener.modulesInterpreted] is called when
+     *   all are interpreted.
+     */
+    fun interpret(
+            sdkPaths: Iterable<String>,
+            doNotInterpretPatterns: Iterable<String>,
+            lazy: Boolean
+    ): org.elixir_lang.debugger.node.ok_error.OK =
+            interpretRequest(sdkPaths, doNotInterpretPatterns, lazy)
                     .let { callDebugged(it) }
                     .let { OKError.from(it) }
                     .let { it as org.elixir_lang.debugger.node.ok_error.OK }
 
-    private fun interpretRequest(sdkPaths: Iterable<String>, doNotInterpretPatterns: Iterable<String>) =
+    private fun interpretRequest(sdkPaths: Iterable<String>, doNotInterpretPatterns: Iterable<String>, lazy: Boolean) =
             OtpErlangTuple(arrayOf(
                     OtpErlangAtom("interpret"),
                     otpErlangMapOf(
+                            OtpErlangAtom("lazy") to OtpErlangAtom(lazy),
                             OtpErlangAtom("reject_elixir_module_name_patterns") to
                                     doNotInterpretPatterns.toOtpErlangList(),
                             OtpErlangAtom("sdk_paths") to
@@ -193,6 +223,32 @@ class Node(
             pid
     ))
 
+    /**
+     * @param reference the `{pid, level, path}` reference of a summarized term
+     * @return completes with the summarized children from [offset] up to [limit] children
+     */
+    fun fetchChildren(reference: OtpErlangObject, offset: Int, limit: Int): CompletableFuture<List<OtpErlangObject>> =
+            fetchChildrenRequest(reference, offset, limit)
+                    .let { callDebuggedAsync(it) }
+                    .thenApply { response ->
+                        if (response is OtpErlangTuple && response.arity() == 2 && response.elementAt(0) == OK_ATOM) {
+                            Summary.elements(response.elementAt(1))
+                        } else {
+                            throw org.elixir_lang.debugger.node.Exception(
+                                    "Could not fetch children: ${inspect(response)}",
+                                    null
+                            )
+                        }
+                    }
+
+    private fun fetchChildrenRequest(reference: OtpErlangObject, offset: Int, limit: Int) =
+            OtpErlangTuple(arrayOf(
+                    OtpErlangAtom("fetch_children"),
+                    reference,
+                    OtpErlangInt(offset),
+                    OtpErlangInt(limit)
+            ))
+
     fun evaluate(pid: OtpErlangPid,
                  stackPointer: Int,
                  module: OtpErlangAtom,
@@ -203,8 +259,17 @@ class Node(
                  expression: String,
                  callback: XDebuggerEvaluator.XEvaluationCallback) {
         evaluateRequest(pid, stackPointer, module, function, arity, file, line, expression)
-                .let { callDebugged(it) }
-                .let { callback.evaluated(Factory.create(it)) }
+                .let { callDebuggedAsync(it) }
+                // not on the mail box's receive thread, so that the callback can't block replies to other calls
+                .whenCompleteAsync({ response, throwable ->
+                    if (throwable == null) {
+                        callback.evaluated(Factory.create(response))
+                    } else {
+                        val cause = (throwable as? CompletionException)?.cause ?: throwable
+
+                        callback.errorOccurred(cause.message ?: cause.toString())
+                    }
+                }, AppExecutorUtil.getAppExecutorService())
     }
 
     private fun otpErlangLong(int: Int) = OtpErlangLong(int.toLong())
@@ -251,8 +316,14 @@ class Node(
         }
     }
 
-    private fun callDebugged(request: OtpErlangObject): OtpErlangObject =
-            mailBox.genericServerCall(remote, request, TIMEOUT_IN_MILLISECONDS)
+    private fun callDebugged(request: OtpErlangObject, timeout: Int = TIMEOUT_IN_MILLISECONDS): OtpErlangObject =
+            mailBox.genericServerCall(remote, request, timeout)
+
+    /**
+     * Like [callDebugged], but does not block the calling thread, so that several requests can be in flight at once.
+     */
+    private fun callDebuggedAsync(request: OtpErlangObject): CompletableFuture<OtpErlangObject> =
+            mailBox.genericServerCallAsync(remote, request, TIMEOUT_IN_MILLISECONDS)
 
     private tailrec fun loop() {
         mailBox.receive { receivedMessage ->
@@ -272,6 +343,7 @@ private fun Iterable<String>.toOtpErlangList(): OtpErlangList =
                 .let { OtpErlangList(it) }
 
 private const val TIMEOUT_IN_MILLISECONDS = 60000
+private val OK_ATOM = OtpErlangAtom("ok")
 private const val EXPECTED_INTERPRETED_MODULE_ARITY = 2
 private const val INTERPRETED_INDEX = 0
 private const val MODULE_INDEX = 1
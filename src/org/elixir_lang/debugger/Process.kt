@@ -36,7 +36,6 @@ import com.intellij.openapi.ui.MessageType
 import com.intellij.psi.PsiManager
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.testFramework.LightVirtualFile
-import com.intellij.util.containers.ContainerUtil
 import com.intellij.util.indexing.FileBasedIndex
 import com.intellij.xdebugger.XDebugProcess
 import com.intellij.xdebugger.XDebugSession
@@ -65,6 +64,7 @@ import org.elixir_lang.run.Configuration
 import org.elixir_lang.run.ensureWorkingDirectory
 import org.elixir_lang.utils.ElixirModulesUtil.elixirModuleNameToErlang
 import java.util.*
+import java.util.concurrent.CompletableFuture
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.TimeUnit
@@ -130,10 +130,19 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
                     moduleName
                         .let(::elixirModuleNameToErlang)
                         .let(::OtpErlangAtom)
-                        .run {
-                            afterInitialized { addBreakpoint(breakpoint, sourcePosition, this) }
+                        .let { module ->
+                            breakpointChanges.add(
+                                BreakpointChange.Set(
+                                    module,
+                                    sourcePositionLineToModuleLine(sourcePosition.line),
+                                    breakpoint,
+                                    sourcePosition
+                                )
+                            )
                         }
                 }
+
+                afterInitialized(::flushBreakpointChanges)
             } else {
                 session.reportMessage(
                     "Unable to determine module for breakpoint at ${sourcePosition.file} line ${sourcePosition.line}",
@@ -151,23 +160,78 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         }
     }
 
-    private fun addBreakpoint(
-        breakpoint: XLineBreakpoint<Properties>,
-        sourcePosition: SourcePosition,
-        module: OtpErlangAtom
-    ) {
-        try {
-            val response = node.setBreakpoint(module, sourcePositionLineToModuleLine(sourcePosition.line))
+    private sealed class BreakpointChange(val module: OtpErlangAtom, val line: Int) {
+        class Set(
+            module: OtpErlangAtom,
+            line: Int,
+            val breakpoint: XLineBreakpoint<Properties>,
+            val sourcePosition: SourcePosition
+        ) : BreakpointChange(module, line)
 
-            when (response) {
-                OK -> session.reportMessage(
-                    "Breakpoint at ${sourcePosition.file}:${sourcePosition.line} set",
-                    MessageType.INFO
-                )
-                is ErrorReason -> session.updateBreakpointPresentation(breakpoint, null, inspect(response.reason))
+        class Remove(module: OtpErlangAtom, line: Int) : BreakpointChange(module, line)
+    }
+
+    /**
+     * Breakpoint changes not yet sent to the debugged node.  Changes queued before the session is initialized, such as
+     * for all the saved breakpoints, are sent as one batch instead of one call per breakpoint.
+     */
+    private val breakpointChanges = ConcurrentLinkedQueue<BreakpointChange>()
+
+    private fun flushBreakpointChanges() {
+        // synchronized, so that the batches of concurrent flushes are sent in the order the changes were queued
+        synchronized(breakpointChanges) {
+            val batches = mutableListOf<MutableList<BreakpointChange>>()
+
+            // consecutive changes of the same kind are batched, so that a set and then remove of the same
+            // breakpoint are still applied in order
+            for (breakpointChange in generateSequence { breakpointChanges.poll() }) {
+                val batch = batches.lastOrNull()
+
+                if (batch != null && batch.first().javaClass == breakpointChange.javaClass) {
+                    batch.add(breakpointChange)
+                } else {
+                    batches.add(mutableListOf(breakpointChange))
+                }
+            }
+
+            for (batch in batches) {
+                when (batch.first()) {
+                    is BreakpointChange.Set -> setBreakpoints(batch.filterIsInstance<BreakpointChange.Set>())
+                    is BreakpointChange.Remove -> removeBreakpoints(batch)
+                }
+            }
+        }
+    }
+
+    private fun setBreakpoints(sets: List<BreakpointChange.Set>) {
+        try {
+            val responses = node.setBreakpoints(sets.map { it.module to it.line })
+
+            for ((set, response) in sets.zip(responses)) {
+                when (response) {
+                    OK -> session.reportMessage(
+                        "Breakpoint at ${set.sourcePosition.file}:${set.sourcePosition.line} set",
+                        MessageType.INFO
+                    )
+                    is ErrorReason ->
+                        session.updateBreakpointPresentation(set.breakpoint, null, inspect(response.reason))
+                }
             }
         } catch (exception: Exception) {
-            session.updateBreakpointPresentation(breakpoint, null, exception.message)
+            for (set in sets) {
+                session.updateBreakpointPresentation(set.breakpoint, null, exception.message)
+            }
+        }
+    }
+
+    private fun removeBreakpoints(removes: List<BreakpointChange>) {
+        try {
+            node.removeBreakpoints(removes.map { it.module to it.line })
+        } catch (exception: Exception) {
+            session.reportMessage(
+                "Failed to remove breakpoints: ${exception.message ?: exception.toString()}",
+                MessageType.WARNING
+            )
         }
     }
 
@@ -179,12 +243,29 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
      */
     override fun breakpointIsSet(module: String, file: String, line: Int) {}
 
-    override fun breakpointReached(pid: OtpErlangPid, snapshots: List<ProcessSnapshot>) {
-        val processInBreakpoint =
-            ContainerUtil.find(snapshots) { elixirProcessSnapshot -> elixirProcessSnapshot.pid == pid }!!
-        val breakPosition = SourcePosition.create(processInBreakpoint)
+    /**
+     * The process table: the [ExecutionStack] of each interpreted process as of the last breakpoint, in the order they
+     * were first seen.  Only changed processes are sent on each breakpoint, so the others keep their [ExecutionStack].
+     */
+    private val executionStackByPid = LinkedHashMap<OtpErlangPid, ExecutionStack>()
+
+    override fun breakpointReached(
+        pid: OtpErlangPid,
+        changedSnapshots: List<ProcessSnapshot>,
+        exitedPids: List<OtpErlangPid>
+    ) {
+        val (executionStackInBreakpoint, executionStacks) = synchronized(executionStackByPid) {
+            exitedPids.forEach { executionStackByPid.remove(it) }
+
+            for (snapshot in changedSnapshots) {
+                executionStackByPid[snapshot.pid] = ExecutionStack(this, snapshot)
+            }
+
+            executionStackByPid[pid]!! to executionStackByPid.values.toList()
+        }
+        val breakPosition = SourcePosition.create(executionStackInBreakpoint.processSnapshot)
         val breakpoint = getLineBreakpoint(breakPosition)
-        val suspendContext = SuspendContext(this, pid, snapshots)
+        val suspendContext = SuspendContext(this, executionStackInBreakpoint, executionStacks)
         if (breakpoint == null) {
             session.positionReached(suspendContext)
         } else {
@@ -200,6 +281,8 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
     }
 
     override fun debuggerStopped() {
+        // don't leave the initializers waiting for modules that will never be interpreted
+        interpretationsDone.cancel(false)
         session.reportMessage("Debug process stopped", MessageType.INFO)
         session.stop()
     }
@@ -259,6 +342,58 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         tabLayouter.interpretedModules(interpretedModuleList)
     }
 
+    override fun moduleInterpreted(module: String, microseconds: Long, error: OtpErlangObject?) {
+        val interpretation = Interpretation(module, microseconds, error)
+
+        if (interpreting.get()) {
+            interpretations.add(interpretation)
+        } else {
+            // interpreted lazily when a breakpoint was set or on step into
+            reportInterpretations(listOf(interpretation))
+        }
+    }
+
+    /**
+     * Called on the same thread as [moduleInterpreted], so all the modules of the batch are already in
+     * [interpretations].
+     */
+    override fun modulesInterpreted() {
+        interpreting.set(false)
+        reportInterpretations(generateSequence { interpretations.poll() }.toList())
+        interpretationsDone.complete(Unit)
+    }
+
+    private class Interpretation(val module: String, val microseconds: Long, val error: OtpErlangObject?)
+
+    private val interpreting = AtomicBoolean(false)
+    private val interpretations = ConcurrentLinkedQueue<Interpretation>()
+    private val interpretationsDone = CompletableFuture<Unit>()
+
+    private fun reportInterpretations(interpretationList: List<Interpretation>) {
+        val (failed, succeeded) = interpretationList.partition { it.error != null }
+
+        if (failed.isNotEmpty()) {
+            failedToInterpretModules(debuggedName, failed.associate { it.module to it.error!! })
+        }
+
+        if (succeeded.size == 1) {
+            val interpretation = succeeded.single()
+            val milliseconds = TimeUnit.MICROSECONDS.toMillis(interpretation.microseconds)
+
+            session.reportMessage("Interpreted ${interpretation.module} in $milliseconds ms", MessageType.INFO)
+        } else if (succeeded.isNotEmpty()) {
+            val slowest = succeeded
+                .sortedByDescending { it.microseconds }
+                .take(SLOWEST_INTERPRETATION_COUNT)
+                .joinToString("\n") { "${TimeUnit.MICROSECONDS.toMillis(it.microseconds)} ms ${it.module}" }
+
+            session.reportMessage(
+                "Interpreted ${succeeded.size} modules.  Slowest modules:\n$slowest",
+                MessageType.INFO
+            )
+        }
+    }
+
     override fun getBreakpointHandlers(): Array<XBreakpointHandler<*>> = breakpointHandlers
 
     override fun getEditorsProvider(): XDebuggerEditorsProvider {
@@ -336,8 +471,14 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
                 moduleName
                     .let(::elixirModuleNameToErlang)
                     .let(::OtpErlangAtom)
-                    .let { node.removeBreakpoint(it, breakpointPosition.line) }
+                    .let { module ->
+                        breakpointChanges.add(
+                            BreakpointChange.Remove(module, sourcePositionLineToModuleLine(breakpointPosition.line))
+                        )
+                    }
             }
+
+            afterInitialized(::flushBreakpointChanges)
         }
     }
 
@@ -350,16 +491,30 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
 
     override fun sessionInitialized() {
         afterInitialized {
-            session.reportMessage("Interpreting modules... ", MessageType.INFO)
+            val lazy = Settings.getInstance().lazyInterpretation
+            val sdkPaths = debuggableConfiguration.let { it as Configuration }.sdkPaths()
+            val doNotInterpretPatterns = debuggableConfiguration.doNotInterpretPatterns()
 
-            val interpretationSeconds = measureNanoTime {
-                node.interpret(
-                    debuggableConfiguration.let { it as Configuration }.sdkPaths(),
-                    debuggableConfiguration.doNotInterpretPatterns()
+            if (lazy) {
+                session.reportMessage(
+                    "Interpreting modules lazily: only modules with breakpoints or stepped into are interpreted",
+                    MessageType.INFO
                 )
-            }.let { TimeUnit.NANOSECONDS.toSeconds(it) }
 
-            session.reportMessage("... completed ($interpretationSeconds seconds)", MessageType.INFO)
+                node.interpret(sdkPaths, doNotInterpretPatterns, lazy)
+            } else {
+                session.reportMessage("Interpreting modules... ", MessageType.INFO)
+
+                interpreting.set(true)
+
+                // the server replies before interpreting, so wait for `:interpreted_modules` before attaching
+                val interpretationSeconds = measureNanoTime {
+                    node.interpret(sdkPaths, doNotInterpretPatterns, lazy)
+                    interpretationsDone.get()
+                }.let { TimeUnit.NANOSECONDS.toSeconds(it) }
+
+                session.reportMessage("... completed ($interpretationSeconds seconds)", MessageType.INFO)
+            }
         }
         afterInitialized {
             node.attach()
@@ -417,6 +572,12 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         session.stop()
     }
 
+    /**
+     * Fetches a page of the children of a [org.elixir_lang.debugger.stack_frame.value.Summary]
+     */
+    fun fetchChildren(reference: OtpErlangObject, offset: Int, limit: Int): CompletableFuture<List<OtpErlangObject>> =
+        node.fetchChildren(reference, offset, limit)
+
     fun evaluate(
         pid: OtpErlangPid,
         stackPointer: Int,
@@ -431,3 +592,5 @@ class Process(session: XDebugSession, private val executionEnvironment: Executio
         node.evaluate(pid, stackPointer, module, function, arity, file, line, expression, callback)
     }
 }
+
+private const val SLOWEST_INTERPRETATION_COUNT = 10
@@ -10,12 +10,23 @@ import com.intellij.xdebugger.settings.XDebuggerSettings
 import org.elixir_lang.debugger.settings.stepping.ModuleFilter
 import org.elixir_lang.debugger.settings.stepping.UI
 
-class Settings(moduleFilters: List<ModuleFilter> = defaultModuleFilters()):
+class Settings(
+        moduleFilters: List<ModuleFilter> = defaultModuleFilters(),
+        lazyInterpretation: Boolean = false
+):
         XDebuggerSettings<Settings>("elixir"), Getter<Settings> {
     @Tag("module-filters")
     // `var` only for `XmlSerializerUtil.copyBean(state, this)`
     var moduleFilters: MutableList<ModuleFilter> = moduleFilters.toMutableList()
 
+    /**
+     * Only interpret modules with breakpoints and the modules they call when stepped into instead of every module on
+     * the code path when the debugger attaches.
+     */
+    @Tag("lazy-interpretation")
+    // `var` only for `XmlSerializerUtil.copyBean(state, this)`
+    var lazyInterpretation: Boolean = lazyInterpretation
+
     override fun createConfigurables(category: DebuggerSettingsCategory): Collection<Configurable> =
         when (category) {
             DebuggerSettingsCategory.STEPPING ->
@@ -35,7 +46,9 @@ class Settings(moduleFilters: List<ModuleFilter> = defaultModuleFilters()):
             = moduleFilters.filter(ModuleFilter::enabled).map(ModuleFilter::pattern)
 
     override fun equals(other: Any?) =
-            other is Settings && other.moduleFilters.let { otherModuleFilters ->
+            other is Settings &&
+                    other.lazyInterpretation == lazyInterpretation &&
+                    other.moduleFilters.let { otherModuleFilters ->
               moduleFilters.size == otherModuleFilters.size &&
                       moduleFilters
                               .zip(otherModuleFilters)
@@ -46,7 +59,7 @@ class Settings(moduleFilters: List<ModuleFilter> = defaultModuleFilters()):
 
     override fun get(): Settings = this
     override fun getState()= this
-    override fun hashCode(): Int = moduleFilters.hashCode()
+    override fun hashCode(): Int = 31 * moduleFilters.hashCode() + lazyInterpretation.hashCode()
 
     override fun loadState(state: Settings) {
         XmlSerializerUtil.copyBean(state, this)
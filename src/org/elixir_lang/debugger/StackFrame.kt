@@ -73,7 +73,7 @@ class StackFrame(private val process: Process, private val pid: OtpErlangPid, pr
                             bindings
                                     .sorted()
                                     .map { binding ->
-                                        Erlang(binding.erlangName, binding.value)
+                                        Erlang(binding.erlangName, binding.value, process::fetchChildren)
                                     }
 
                     if (elixirName != null) {
@@ -18,32 +18,17 @@
 
 package org.elixir_lang.debugger
 
-import com.ericsson.otp.erlang.OtpErlangPid
 import com.intellij.xdebugger.frame.XExecutionStack
 import com.intellij.xdebugger.frame.XSuspendContext
-import org.elixir_lang.debugger.node.ProcessSnapshot
 
+/**
+ * @param executionStacks the [ExecutionStack]s from [Process]'s process table, which are reused between suspends for
+ *   processes that did not change.
+ */
 internal class SuspendContext(val process: Process,
-                              activePid: OtpErlangPid,
-                              snapshots: List<ProcessSnapshot>) : XSuspendContext() {
-    private val executionStacks: Array<XExecutionStack>
-    private val activeExecutionStack: ExecutionStack?
-
-    init {
-        var activeExecutionStack: ExecutionStack? = null
-
-        executionStacks = snapshots.map { snapshot ->
-            val executionStack = ExecutionStack(process, snapshot)
-
-            if (snapshot.pid == activePid) {
-                activeExecutionStack = executionStack
-            }
-
-            executionStack
-        }.toTypedArray()
-
-        this.activeExecutionStack = activeExecutionStack
-    }
+                              private val activeExecutionStack: ExecutionStack,
+                              executionStacks: List<ExecutionStack>) : XSuspendContext() {
+    private val executionStacks: Array<XExecutionStack> = executionStacks.toTypedArray()
 
     override fun getActiveExecutionStack(): XExecutionStack? = activeExecutionStack
     override fun getExecutionStacks(): Array<XExecutionStack> = executionStacks
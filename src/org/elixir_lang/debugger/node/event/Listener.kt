@@ -10,7 +10,12 @@ interface Listener {
      * `file`:`line` can used to create a [org.elixir_lang.debugger.SourcePosition]
      */
     fun breakpointIsSet(module: String, file: String, line: Int)
-    fun breakpointReached(pid: OtpErlangPid, snapshots: List<ProcessSnapshot>)
+    /**
+     * @param changedSnapshots the processes that are new or changed since the previous call; all other processes
+     *   except [exitedPids] are unchanged
+     * @param exitedPids the processes that are no longer interpreted since the previous call
+     */
+    fun breakpointReached(pid: OtpErlangPid, changedSnapshots: List<ProcessSnapshot>, exitedPids: List<OtpErlangPid>)
     fun debuggerStarted()
     fun debuggerStopped()
     fun failedToDebugRemoteNode(nodeName: String, error: OtpErlangObject)
@@ -21,5 +26,14 @@ interface Listener {
      */
     fun failedToSetBreakpoint(module: String, file: String, line: Int, errorMessage: OtpErlangObject)
     fun interpretedModules(interpretedModuleList: List<InterpretedModule>)
+    /**
+     * @param error `null` if [module] was interpreted; otherwise, the reason it could not be interpreted
+     */
+    fun moduleInterpreted(module: String, microseconds: Long, error: OtpErlangObject?)
+    /**
+     * Called after [moduleInterpreted] for every module interpreted by a call to
+     * [org.elixir_lang.debugger.Node.interpret] that was not lazy
+     */
+    fun modulesInterpreted()
     fun unknownMessage(messageText: String)
 }
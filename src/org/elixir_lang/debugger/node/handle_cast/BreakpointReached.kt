@@ -23,6 +23,10 @@ import org.elixir_lang.debugger.Node
 import org.elixir_lang.debugger.node.ProcessSnapshot
 import org.elixir_lang.debugger.node.event.Listener
 
+/**
+ * `{:breakpoint_reached, pid, changed_snapshots_with_stacks, exited_pids}` sent by `IntelliJElixir.Debugger.Server`.
+ * Only the processes that changed since the previous breakpoint are in `changed_snapshots_with_stacks`.
+ */
 class BreakpointReached(private val node : Node, private val eventListener: Listener) : Clause {
     override fun match(arguments: OtpErlangList): Match? {
         assert(arguments.arity() == 1)
@@ -31,19 +35,20 @@ class BreakpointReached(private val node : Node, private val eventListener: List
                 .elementAt(0)
                 .let { it as? OtpErlangTuple }
                 ?.let { tuple ->
-                    if (tuple.arity() == 3) {
+                    if (tuple.arity() == 4) {
                         tuple
                     } else {
                         null
                     }
                 }
                 ?.let { tuple ->
-                    if (tuple.elementAt(0) == BREAKPOINT_REACHED && tuple.elementAt(1) is OtpErlangPid && tuple.elementAt(2) is OtpErlangList) {
+                    if (tuple.elementAt(0) == BREAKPOINT_REACHED) {
                         val pid = tuple.elementAt(1) as? OtpErlangPid
-                        val otpSnapshotWithStacks = tuple.elementAt(2) as? OtpErlangList
+                        val changedSnapshotsWithStacks = tuple.elementAt(2) as? OtpErlangList
+                        val exitedPids = tuple.elementAt(3) as? OtpErlangList
 
-                        if (pid != null && otpSnapshotWithStacks != null) {
-                            Match(pid, otpSnapshotWithStacks)
+                        if (pid != null && changedSnapshotsWithStacks != null && exitedPids != null) {
+                            Match(pid, changedSnapshotsWithStacks, exitedPids)
                         } else {
                             null
                         }
@@ -56,15 +61,20 @@ class BreakpointReached(private val node : Node, private val eventListener: List
     override fun run(match: org.elixir_lang.clause.Match): OtpErlangObject {
         val breakpointReachedMatch = match as Match
         val pid = breakpointReachedMatch.pid
-        val processSnapshotList = breakpointReachedMatch.snapshotsWithStacks.toProcessSnapshotList()
+        val changedProcessSnapshotList = breakpointReachedMatch.changedSnapshotsWithStacks.toProcessSnapshotList()
+        val exitedPidList = breakpointReachedMatch.exitedPids.filterIsInstance<OtpErlangPid>()
 
         node.processSuspended(pid)
-        eventListener.breakpointReached(pid, processSnapshotList)
+        eventListener.breakpointReached(pid, changedProcessSnapshotList, exitedPidList)
 
         return OtpErlangAtom("ok")
     }
 
-    inner class Match(val pid: OtpErlangPid, val snapshotsWithStacks: OtpErlangList) : org.elixir_lang.clause.Match
+    inner class Match(
+            val pid: OtpErlangPid,
+            val changedSnapshotsWithStacks: OtpErlangList,
+            val exitedPids: OtpErlangList
+    ) : org.elixir_lang.clause.Match
 }
 
 private val BREAKPOINT_REACHED = OtpErlangAtom("breakpoint_reached")
@@ -0,0 +1,57 @@
+package org.elixir_lang.debugger.node.handle_cast
+
+import com.ericsson.otp.erlang.*
+import org.elixir_lang.Clause
+import org.elixir_lang.debugger.node.event.Listener
+
+/**
+ * `{:interpreted_module, module, microseconds, result}` sent by `IntelliJElixir.Debugger.Server` after each module it
+ * interprets.
+ */
+class ModuleInterpreted(private val eventListener: Listener) : Clause {
+    override fun match(arguments: OtpErlangList): Match? {
+        assert(arguments.arity() == 1)
+
+        return arguments
+                .elementAt(0)
+                .let { it as? OtpErlangTuple }
+                ?.takeIf { tuple -> tuple.arity() == 4 && tuple.elementAt(0) == INTERPRETED_MODULE }
+                ?.let { tuple ->
+                    val module = tuple.elementAt(1) as? OtpErlangAtom
+                    val microseconds = tuple.elementAt(2) as? OtpErlangLong
+
+                    if (module != null && microseconds != null) {
+                        Match(module, microseconds.longValue(), tuple.elementAt(3))
+                    } else {
+                        null
+                    }
+                }
+    }
+
+    override fun run(match: org.elixir_lang.clause.Match): OtpErlangObject {
+        val moduleInterpretedMatch = match as Match
+        val result = moduleInterpretedMatch.result
+        val error = if (result == OK) {
+            null
+        } else {
+            result
+        }
+
+        eventListener.moduleInterpreted(
+                moduleInterpretedMatch.module.atomValue(),
+                moduleInterpretedMatch.microseconds,
+                error
+        )
+
+        return OK
+    }
+
+    inner class Match(
+            val module: OtpErlangAtom,
+            val microseconds: Long,
+            val result: OtpErlangObject
+    ) : org.elixir_lang.clause.Match
+}
+
+private val INTERPRETED_MODULE = OtpErlangAtom("interpreted_module")
+private val OK = OtpErlangAtom("ok")
@@ -0,0 +1,34 @@
+package org.elixir_lang.debugger.node.handle_cast
+
+import com.ericsson.otp.erlang.OtpErlangAtom
+import com.ericsson.otp.erlang.OtpErlangList
+import com.ericsson.otp.erlang.OtpErlangObject
+import org.elixir_lang.Clause
+import org.elixir_lang.debugger.node.event.Listener
+
+/**
+ * `:interpreted_modules` sent by `IntelliJElixir.Debugger.Server` after the `{:interpreted_module, ...}` for every
+ * module it interprets when not interpreting lazily.
+ */
+class ModulesInterpreted(private val eventListener: Listener) : Clause {
+    override fun match(arguments: OtpErlangList): Match? {
+        assert(arguments.arity() == 1)
+
+        return if (arguments.elementAt(0) == INTERPRETED_MODULES) {
+            Match
+        } else {
+            null
+        }
+    }
+
+    override fun run(match: org.elixir_lang.clause.Match): OtpErlangObject {
+        eventListener.modulesInterpreted()
+
+        return OK
+    }
+
+    object Match : org.elixir_lang.clause.Match
+}
+
+private val INTERPRETED_MODULES = OtpErlangAtom("interpreted_modules")
+private val OK = OtpErlangAtom("ok")
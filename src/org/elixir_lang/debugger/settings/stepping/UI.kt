@@ -4,12 +4,14 @@ import com.intellij.openapi.options.ConfigurableUi
 import org.elixir_lang.debugger.Settings
 import org.elixir_lang.debugger.settings.stepping.module_filter.Editor
 import java.awt.BorderLayout
+import javax.swing.JCheckBox
 import javax.swing.JComponent
 import javax.swing.JLabel
 import javax.swing.JPanel
 
 class UI: ConfigurableUi<Settings> {
     private lateinit var filterEditor: Editor
+    private lateinit var lazyInterpretationCheckBox: JCheckBox
 
     override fun apply(settings: Settings) {
         filterEditor.stopEditing()
@@ -18,6 +20,7 @@ class UI: ConfigurableUi<Settings> {
             clear()
             addAll(filterEditor.filters)
         }
+        settings.lazyInterpretation = lazyInterpretationCheckBox.isSelected
     }
 
     override fun getComponent(): JComponent =
@@ -26,15 +29,19 @@ class UI: ConfigurableUi<Settings> {
 
             add(JLabel("Do not step into the Modules:"), BorderLayout.NORTH)
             add(filterEditor, BorderLayout.CENTER)
+
+            lazyInterpretationCheckBox = JCheckBox("Interpret lazily: only modules with breakpoints or stepped into")
+            add(lazyInterpretationCheckBox, BorderLayout.SOUTH)
         }
 
     override fun isModified(settings: Settings)= toSettings() != settings
 
     override fun reset(settings: Settings) {
         filterEditor.filters = settings.moduleFilters
+        lazyInterpretationCheckBox.isSelected = settings.lazyInterpretation
     }
 
     // Private Functions
 
-    private fun toSettings() = Settings(filterEditor.filters)
+    private fun toSettings() = Settings(filterEditor.filters, lazyInterpretationCheckBox.isSelected)
 }
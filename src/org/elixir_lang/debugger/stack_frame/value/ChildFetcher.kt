@@ -0,0 +1,15 @@
+package org.elixir_lang.debugger.stack_frame.value
+
+import com.ericsson.otp.erlang.OtpErlangObject
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Fetches a page of the children of a [Summary] from the debugged node.
+ */
+fun interface ChildFetcher {
+    /**
+     * @param reference the `{pid, level, path}` reference in the [Summary]
+     * @return completes with the page of children, so that the caller does not have to block a thread on it
+     */
+    fun fetchChildren(reference: OtpErlangObject, offset: Int, limit: Int): CompletableFuture<List<OtpErlangObject>>
+}
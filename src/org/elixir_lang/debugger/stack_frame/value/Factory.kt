@@ -22,15 +22,24 @@ import org.elixir_lang.debugger.stack_frame.value.list.Improper
 import org.elixir_lang.debugger.stack_frame.value.list.Proper
 
 object Factory {
+    /**
+     * @param fetcher fetches the pages of any [Summary] in [term] when they are expanded
+     */
+    @JvmOverloads
     @JvmStatic
-    fun create(term: OtpErlangObject): Presentable<*> =
+    fun create(term: OtpErlangObject, fetcher: ChildFetcher? = null): Presentable<*> =
             when (term) {
                 is OtpErlangLong, is OtpErlangDouble -> Numeric(term)
                 is OtpErlangAtom -> Atom(term)
                 is OtpErlangPid -> Pid(term)
                 is OtpErlangPort -> Port(term)
                 is OtpErlangRef -> Ref(term)
-                is OtpErlangTuple -> Tuple(term)
+                is OtpErlangTuple ->
+                    if (Summary.isSummary(term)) {
+                        Summary(term, fetcher)
+                    } else {
+                        Tuple(term, fetcher)
+                    }
                 is OtpErlangString ->
                     if (Presentation.isPrintable(term)) {
                         CharList(term)
@@ -39,9 +48,9 @@ object Factory {
                     }
                 is OtpErlangList ->
                     if (term.isProper) {
-                        Proper(term)
+                        Proper(term, fetcher)
                     } else {
-                        Improper(term)
+                        Improper(term, fetcher)
                     }
 
                 is OtpErlangBitstr ->
@@ -52,7 +61,7 @@ object Factory {
                     }
                 else ->
                     if (term is OtpErlangMap) {
-                        Map(term)
+                        Map(term, fetcher)
                     } else {
                         Primitive(term)
                     }
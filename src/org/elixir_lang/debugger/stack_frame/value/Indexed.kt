@@ -15,8 +15,8 @@ fun XValueChildrenList.add(index: Int, numericChild: Long) {
     add(index, OtpErlangLong(numericChild))
 }
 
-fun XValueChildrenList.add(index: Int, child: OtpErlangObject) {
-    add(index, Factory.create(child))
+fun XValueChildrenList.add(index: Int, child: OtpErlangObject, fetcher: ChildFetcher? = null) {
+    add(index, Factory.create(child, fetcher))
 }
 
 fun XValueChildrenList.add(index: Int, child: XValue) {
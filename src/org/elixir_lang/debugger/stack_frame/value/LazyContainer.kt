@@ -7,6 +7,12 @@ interface LazyContainer {
     val childCount: Int
     var nextChildIndexToCompute: Int
     fun computeChild(children: XValueChildrenList, index: Int)
+
+    /**
+     * Computes the next page of children.  Called again when more children are requested after
+     * [XCompositeNode.tooManyChildren], so that implementations, like [Summary], can fetch the page first.
+     */
+    fun computeChildren(node: XCompositeNode)
 }
 
 fun computeChildren(lazyContainer: LazyContainer, node: XCompositeNode) {
@@ -26,7 +32,7 @@ fun computeChildren(lazyContainer: LazyContainer, node: XCompositeNode) {
 
     if (!computedAllChildren) {
         node.tooManyChildren(lazyContainer.childCount - lazyContainer.nextChildIndexToCompute) {
-            computeChildren(lazyContainer, node)
+            lazyContainer.computeChildren(node)
         }
     }
 }
@@ -22,7 +22,8 @@ import com.ericsson.otp.erlang.OtpErlangAtom
 import com.ericsson.otp.erlang.OtpErlangMap
 import com.intellij.xdebugger.frame.XValueChildrenList
 
-class Map internal constructor(term: OtpErlangMap) : LazyParent<OtpErlangMap>(term, term.arity()) {
+class Map internal constructor(term: OtpErlangMap, private val fetcher: ChildFetcher? = null) :
+        LazyParent<OtpErlangMap>(term, term.arity()) {
     override fun computeChild(children: XValueChildrenList, index: Int) {
         val key = term.keys()[index]
         val value = term.get(key)
@@ -30,10 +31,10 @@ class Map internal constructor(term: OtpErlangMap) : LazyParent<OtpErlangMap>(te
         if (Presentation.hasSymbolKeys(term) && key is OtpErlangAtom) {
             val keyString = key.atomValue()
             if (keyString != "__struct__") {
-                children.add(keyString, value)
+                children.add(keyString, value, fetcher)
             }
         } else {
-            children.add(index, Mapping(key, value))
+            children.add(index, Mapping(key, value, fetcher))
         }
     }
 }
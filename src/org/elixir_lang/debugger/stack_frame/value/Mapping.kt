@@ -23,14 +23,18 @@ import com.ericsson.otp.erlang.OtpErlangTuple
 import com.intellij.xdebugger.frame.XCompositeNode
 import com.intellij.xdebugger.frame.XValueChildrenList
 
-internal class Mapping(private val key: OtpErlangObject, private val value: OtpErlangObject) :
+internal class Mapping(
+        private val key: OtpErlangObject,
+        private val value: OtpErlangObject,
+        private val fetcher: ChildFetcher? = null
+) :
         Presentable<OtpErlangTuple>(OtpErlangTuple(arrayOf(key, value))) {
     override val hasChildren: Boolean = true
 
     override fun computeChildren(node: XCompositeNode) {
         val children = XValueChildrenList(2)
-        children.add("key", key)
-        children.add("value", value)
+        children.add("key", key, fetcher)
+        children.add("value", value, fetcher)
         node.addChildren(children, true)
     }
 }
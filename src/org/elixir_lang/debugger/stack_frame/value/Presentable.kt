@@ -25,8 +25,8 @@ abstract class Presentable<out T : OtpErlangObject>(protected val term: T) : XVa
     }
 }
 
-fun XValueChildrenList.add(name: kotlin.String, child: OtpErlangObject) {
-    add(name, Factory.create(child))
+fun XValueChildrenList.add(name: kotlin.String, child: OtpErlangObject, fetcher: ChildFetcher? = null) {
+    add(name, Factory.create(child, fetcher))
 }
 
 fun XValueChildrenList.add(name: kotlin.String, atomString: kotlin.String) {
@@ -39,11 +39,70 @@ class Presentation(private val myValue: Any) : XValuePresentation() {
                 is OtpErlangList -> renderList(o, renderer)
                 is OtpErlangMap -> renderMap(o, renderer)
                 is OtpErlangString -> renderErlangString(o, renderer)
-                is OtpErlangTuple -> renderTuple(o, renderer)
+                is OtpErlangTuple ->
+                    if (Summary.isSummary(o)) {
+                        renderSummary(o, renderer)
+                    } else {
+                        renderTuple(o, renderer)
+                    }
                 else -> renderer.renderValue(o.toString())
             }
         }
 
+        /**
+         * Renders the elements in the [Summary] followed by the count of those that are not.
+         */
+        private fun renderSummary(summary: OtpErlangTuple, renderer: XValueTextRenderer) {
+            val size = Summary.size(summary)
+            val elementsTerm = Summary.elementsTerm(summary)
+
+            when (Summary.type(summary)) {
+                Summary.BINARY -> {
+                    if (elementsTerm is OtpErlangBitstr) {
+                        renderBitstr(elementsTerm, renderer)
+                        renderer.renderSpecialSymbol(" … ${size - elementsTerm.binaryValue().size} more bytes")
+                    }
+                }
+                Summary.MAP -> {
+                    val elements = Summary.elements(elementsTerm)
+
+                    renderer.renderSpecialSymbol("%{")
+
+                    elements.forEachIndexed { index, element ->
+                        if (index > 0) {
+                            renderer.renderSpecialSymbol(", ")
+                        }
+
+                        if (element is OtpErlangTuple && element.arity() == 2) {
+                            renderObject(element.elementAt(0), renderer)
+                            renderer.renderSpecialSymbol(" => ")
+                            renderObject(element.elementAt(1), renderer)
+                        } else {
+                            renderObject(element, renderer)
+                        }
+                    }
+
+                    renderer.renderSpecialSymbol(", … ${size - elements.size} more}")
+                }
+                else -> {
+                    val (open, close) = if (Summary.type(summary) == Summary.TUPLE) "{" to "}" else "[" to "]"
+                    val elements = Summary.elements(elementsTerm)
+
+                    renderer.renderSpecialSymbol(open)
+
+                    elements.forEachIndexed { index, element ->
+                        if (index > 0) {
+                            renderer.renderSpecialSymbol(", ")
+                        }
+
+                        renderObject(element, renderer)
+                    }
+
+                    renderer.renderSpecialSymbol(", … ${size - elements.size} more$close")
+                }
+            }
+        }
+
         private fun renderMap(map: OtpErlangMap, renderer: XValueTextRenderer) {
             renderer.renderSpecialSymbol("%")
 
@@ -0,0 +1,117 @@
+package org.elixir_lang.debugger.stack_frame.value
+
+import com.ericsson.otp.erlang.*
+import com.intellij.icons.AllIcons
+import com.intellij.util.concurrency.AppExecutorUtil
+import com.intellij.xdebugger.frame.XCompositeNode
+import com.intellij.xdebugger.frame.XValueChildrenList
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import javax.swing.Icon
+
+/**
+ * A list, map or tuple that `IntelliJElixir.Debugger.Server` summarized because it was too big to send whole:
+ * `{:"$intellij_elixir_summary", type, size, first_elements, reference}`.  Only the first page of elements is in the
+ * summary, the other pages are fetched with [fetcher] when they are expanded.
+ *
+ * Binaries are summarized with a prefix of their bytes and have no children.
+ */
+class Summary(term: OtpErlangTuple, private val fetcher: ChildFetcher?) :
+        LazyContainer, Presentable<OtpErlangTuple>(term) {
+    private val type: kotlin.String = type(term)
+    override val childCount: Int = if (type == BINARY) 0 else size(term)
+    override var nextChildIndexToCompute: Int = 0
+    override val hasChildren: Boolean = childCount > 0
+    override val icon: Icon = if (type == MAP) AllIcons.Debugger.Value else AllIcons.Debugger.Db_array
+
+    private val reference: OtpErlangObject = term.elementAt(REFERENCE_INDEX)
+    private val pageByOffset = ConcurrentHashMap<Int, List<OtpErlangObject>>().apply {
+        put(0, elements(term.elementAt(ELEMENTS_INDEX)))
+    }
+
+    override fun computeChildren(node: XCompositeNode) {
+        val offset = nextChildIndexToCompute - nextChildIndexToCompute % PAGE_SIZE
+
+        if (pageByOffset.containsKey(offset) || fetcher == null || reference !is OtpErlangTuple) {
+            computeChildren(this, node)
+        } else {
+            // fetching pages is a call to the debugged node, so only compute the children when the reply arrives, but
+            // not on the thread receiving replies, so that computing them can't block replies to other calls
+            fetcher.fetchChildren(reference, offset, PAGE_SIZE).whenCompleteAsync({ page, throwable ->
+                if (throwable == null) {
+                    pageByOffset[offset] = page
+                    computeChildren(this, node)
+                } else {
+                    val cause = (throwable as? CompletionException)?.cause ?: throwable
+
+                    node.setErrorMessage(cause.message ?: cause.toString())
+                }
+            }, AppExecutorUtil.getAppExecutorService())
+        }
+    }
+
+    override fun computeChild(children: XValueChildrenList, index: Int) {
+        val pageOffset = index - index % PAGE_SIZE
+        val element = page(pageOffset).getOrNull(index - pageOffset) ?: return
+
+        if (type == MAP && element is OtpErlangTuple && element.arity() == 2) {
+            val key = element.elementAt(0)
+            val value = element.elementAt(1)
+
+            if (key is OtpErlangAtom && !key.atomValue().startsWith("Elixir.")) {
+                val keyString = key.atomValue()
+
+                if (keyString != "__struct__") {
+                    children.add(keyString, value, fetcher)
+                }
+            } else {
+                children.add(index, Mapping(key, value, fetcher))
+            }
+        } else {
+            children.add(index, element, fetcher)
+        }
+    }
+
+    private fun page(offset: Int): List<OtpErlangObject> = pageByOffset[offset] ?: emptyList()
+
+    companion object {
+        /**
+         * Matches `@page_size` in `IntelliJElixir.Debugger.Server`
+         */
+        private const val PAGE_SIZE = 100
+
+        private val SUMMARY = OtpErlangAtom("\$intellij_elixir_summary")
+        private const val ARITY = 5
+        private const val TYPE_INDEX = 1
+        private const val SIZE_INDEX = 2
+        private const val ELEMENTS_INDEX = 3
+        private const val REFERENCE_INDEX = 4
+
+        const val BINARY = "binary"
+        const val LIST = "list"
+        const val MAP = "map"
+        const val TUPLE = "tuple"
+
+        fun isSummary(tuple: OtpErlangTuple): Boolean = tuple.arity() == ARITY && tuple.elementAt(0) == SUMMARY
+
+        fun type(summary: OtpErlangTuple): kotlin.String =
+                (summary.elementAt(TYPE_INDEX) as OtpErlangAtom).atomValue()
+
+        fun size(summary: OtpErlangTuple): Int = (summary.elementAt(SIZE_INDEX) as OtpErlangLong).intValue()
+
+        /**
+         * The first page of elements or, for [BINARY], the prefix bytes.
+         */
+        fun elementsTerm(summary: OtpErlangTuple): OtpErlangObject = summary.elementAt(ELEMENTS_INDEX)
+
+        /**
+         * Lists of bytes decode as [OtpErlangString], so convert them back to elements.
+         */
+        fun elements(term: OtpErlangObject): List<OtpErlangObject> =
+                when (term) {
+                    is OtpErlangList -> term.elements().toList()
+                    is OtpErlangString -> OtpErlangList(term.stringValue()).elements().toList()
+                    else -> emptyList()
+                }
+    }
+}
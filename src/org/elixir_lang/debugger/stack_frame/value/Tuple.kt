@@ -21,8 +21,9 @@ package org.elixir_lang.debugger.stack_frame.value
 import com.ericsson.otp.erlang.OtpErlangTuple
 import com.intellij.xdebugger.frame.XValueChildrenList
 
-internal class Tuple(term: OtpErlangTuple) : Indexed<OtpErlangTuple>(term, term.arity()) {
+internal class Tuple(term: OtpErlangTuple, private val fetcher: ChildFetcher? = null) :
+        Indexed<OtpErlangTuple>(term, term.arity()) {
     override fun computeChild(children: XValueChildrenList, index: Int) {
-        children.add(index, term.elementAt(index))
+        children.add(index, term.elementAt(index), fetcher)
     }
 }
@@ -20,11 +20,13 @@ package org.elixir_lang.debugger.stack_frame.value.list
 
 import com.ericsson.otp.erlang.OtpErlangList
 import com.intellij.xdebugger.frame.XValueChildrenList
+import org.elixir_lang.debugger.stack_frame.value.ChildFetcher
 import org.elixir_lang.debugger.stack_frame.value.Indexed
 import org.elixir_lang.debugger.stack_frame.value.add
 
-internal class Proper(term: OtpErlangList) : Indexed<OtpErlangList>(term, term.arity()) {
+internal class Proper(term: OtpErlangList, private val fetcher: ChildFetcher? = null) :
+        Indexed<OtpErlangList>(term, term.arity()) {
     override fun computeChild(children: XValueChildrenList, index: Int) {
-        children.add(index, term.elementAt(index))
+        children.add(index, term.elementAt(index), fetcher)
     }
 }
@@ -6,11 +6,16 @@ import com.intellij.xdebugger.frame.XNamedValue
 import com.intellij.xdebugger.frame.XValueNode
 import com.intellij.xdebugger.frame.XValuePlace
 import com.intellij.xdebugger.frame.presentation.XValuePresentation
+import org.elixir_lang.debugger.stack_frame.value.ChildFetcher
 import org.elixir_lang.debugger.stack_frame.value.Factory
 import org.elixir_lang.debugger.stack_frame.value.Presentable
 import javax.swing.Icon
 
-class Erlang<out T : OtpErlangObject>(name: String, val term: T) : XNamedValue(name) {
+class Erlang<out T : OtpErlangObject>(
+        name: String,
+        val term: T,
+        private val fetcher: ChildFetcher? = null
+) : XNamedValue(name) {
     val hasChildren: Boolean
       get() = xValue.hasChildren
 
@@ -31,6 +36,6 @@ class Erlang<out T : OtpErlangObject>(name: String, val term: T) : XNamedValue(n
     }
 
     private val xValue: Presentable<*> by lazy {
-        Factory.create(term)
+        Factory.create(term, fetcher)
     }
 }
@@ -0,0 +1,210 @@
+package org.elixir_lang.find_usages
+
+import com.intellij.concurrency.JobLauncher
+import com.intellij.openapi.application.runReadAction
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.util.TextRange
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.PsiReference
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.PsiSearchHelper
+import com.intellij.psi.search.UsageSearchContext
+import com.intellij.psi.util.parents
+import com.intellij.usageView.UsageInfo
+import com.intellij.util.Processor
+import org.elixir_lang.ElixirFileType
+import org.elixir_lang.psi.ArityInterval
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Finds the references to a call definition by resolving the candidate references in each file that contains its
+ * name in parallel.  Each file is resolved in read actions that give way to write actions, with
+ * [ProgressManager.checkCanceled] between occurrences, so that searching doesn't block typing; a file whose read action
+ * is canceled by a write action is resumed after the last finished occurrence once the write action is done.  Usages
+ * are passed to the processor as soon as they are confirmed instead of after all candidates are resolved.  For each
+ * occurrence, only the references of the innermost element with a reference covering it are computed, not those of
+ * every enclosing element.
+ *
+ * Elixir files that the [org.elixir_lang.find_usages.call_site.Index] shows have no call site with a matching arity
+ * are skipped before any PSI is built for them.
+ */
+object ParallelReferences {
+    /**
+     * @return `false` if [processor] returned `false` to stop the search.
+     */
+    fun process(
+        target: PsiElement,
+        name: String,
+        arityInterval: ArityInterval,
+        scope: GlobalSearchScope,
+        processor: Processor<in UsageInfo>
+    ): Boolean {
+        val project = runReadAction { target.project }
+        val candidateFileList = mutableListOf<VirtualFile>()
+
+        runReadAction {
+            val callSiteFileSet = if (DumbService.isDumb(project)) {
+                null
+            } else {
+                org.elixir_lang.find_usages.call_site.Index.containingFiles(name, arityInterval, scope)
+            }
+
+            PsiSearchHelper
+                .getInstance(project)
+                .processCandidateFilesForText(scope, UsageSearchContext.IN_CODE, true, name) { virtualFile ->
+                    // EEx and other template files aren't indexed, so they can't be pruned
+                    if (callSiteFileSet == null ||
+                        virtualFile.fileType !is ElixirFileType ||
+                        virtualFile in callSiteFileSet) {
+                        candidateFileList.add(virtualFile)
+                    }
+
+                    true
+                }
+        }
+
+        val indicator = ProgressManager.getInstance().progressIndicator ?: EmptyProgressIndicator()
+        val psiManager = PsiManager.getInstance(project)
+        val stopped = AtomicBoolean(false)
+
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(candidateFileList, indicator) { virtualFile ->
+            !stopped.get() && processFile(indicator, psiManager, virtualFile, target, name, processor).also { keepProcessing ->
+                if (!keepProcessing) {
+                    stopped.set(true)
+                }
+            }
+        }
+
+        return !stopped.get()
+    }
+
+    /**
+     * Where processing a file got to before its read action was canceled.  It only applies while the file's
+     * [PsiFile.getModificationStamp] is still [modificationStamp].
+     */
+    private class FileProgress {
+        var modificationStamp = -1L
+        /**
+         * Where to search for the next occurrence: all occurrences before it are finished.
+         */
+        var offset = 0
+        /**
+         * The references already checked, so that the references of an occurrence that was interrupted aren't passed
+         * to the processor twice when it is processed again.
+         */
+        val processedReferenceSet = mutableSetOf<Pair<PsiElement, TextRange>>()
+    }
+
+    /**
+     * Processes [virtualFile] in read actions that are canceled by pending write actions, retrying after each write
+     * action until the file is finished.
+     */
+    private fun processFile(
+        indicator: ProgressIndicator,
+        psiManager: PsiManager,
+        virtualFile: VirtualFile,
+        target: PsiElement,
+        name: String,
+        processor: Processor<in UsageInfo>
+    ): Boolean {
+        val fileProgress = FileProgress()
+        var keepProcessing = true
+
+        while (!ProgressIndicatorUtils.runInReadActionWithWriteActionPriority(
+                {
+                    keepProcessing = psiManager.findFile(virtualFile)?.let { psiFile ->
+                        processFile(psiFile, target, name, processor, fileProgress)
+                    } ?: true
+                },
+                indicator
+            )) {
+            indicator.checkCanceled()
+            ProgressIndicatorUtils.yieldToPendingWriteActions()
+        }
+
+        return keepProcessing
+    }
+
+    private fun processFile(
+        psiFile: PsiFile,
+        target: PsiElement,
+        name: String,
+        processor: Processor<in UsageInfo>,
+        fileProgress: FileProgress
+    ): Boolean {
+        val modificationStamp = psiFile.modificationStamp
+
+        // a write action changed the file, so the occurrences and references from before it no longer apply
+        if (fileProgress.modificationStamp != modificationStamp) {
+            fileProgress.modificationStamp = modificationStamp
+            fileProgress.offset = 0
+            fileProgress.processedReferenceSet.clear()
+        }
+
+        val viewProvider = psiFile.viewProvider
+        val text = viewProvider.contents
+        val processedReferenceSet = fileProgress.processedReferenceSet
+        var offset = text.indexOf(name, fileProgress.offset)
+
+        while (offset >= 0) {
+            ProgressManager.checkCanceled()
+
+            if (isWordAt(text, offset, name.length)) {
+                val occurrence = TextRange(offset, offset + name.length)
+
+                for (root in viewProvider.allFiles) {
+                    val leaf = root.findElementAt(offset) ?: continue
+
+                    for (element in leaf.parents(withSelf = true)) {
+                        if (element is PsiFile) {
+                            break
+                        }
+
+                        var covered = false
+
+                        for (reference in element.references) {
+                            val range = reference.absoluteRange(element)
+
+                            if (range.contains(occurrence)) {
+                                covered = true
+
+                                if (processedReferenceSet.add(element to range) &&
+                                    reference.isReferenceTo(target) &&
+                                    !processor.process(UsageInfo(reference))) {
+                                    return false
+                                }
+                            }
+                        }
+
+                        // the innermost references covering the occurrence are the ones to it, so the references of
+                        // outer ancestors, such as enclosing calls, don't need to be computed
+                        if (covered) {
+                            break
+                        }
+                    }
+                }
+            }
+
+            fileProgress.offset = offset + name.length
+            offset = text.indexOf(name, fileProgress.offset)
+        }
+
+        return true
+    }
+
+    private fun PsiReference.absoluteRange(element: PsiElement): TextRange =
+        rangeInElement.shiftRight(element.textRange.startOffset)
+
+    private fun isWordAt(text: CharSequence, offset: Int, length: Int): Boolean =
+        (offset == 0 || !isIdentifierPart(text[offset - 1])) &&
+                (offset + length == text.length || !isIdentifierPart(text[offset + length]))
+
+    private fun isIdentifierPart(char: Char): Boolean = char.isLetterOrDigit() || char == '_'
+}
@@ -0,0 +1,53 @@
+package org.elixir_lang.find_usages.call_site
+
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter
+import com.intellij.util.indexing.FileBasedIndex
+import com.intellij.util.indexing.ID
+import com.intellij.util.indexing.ScalarIndexExtension
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import com.intellij.openapi.vfs.VirtualFile
+import org.elixir_lang.ElixirFileType
+import org.elixir_lang.ElixirScriptFileType
+import org.elixir_lang.psi.ArityInterval
+
+/**
+ * Keys: `name/arity` for each call site whose arity can be counted from the tokens, such as `name(a, b)`,
+ * `a |> name(b)` and `&name/2`, and `name/?` for every other occurrence of the identifier, such as no parentheses
+ * calls, variables, atoms and keyword keys.
+ *
+ * Used to prune the candidate files for the usages of a call definition before any PSI is built.
+ */
+class Index : ScalarIndexExtension<String>() {
+    override fun dependsOnFileContent() = true
+    override fun getIndexer() = INDEXER
+    override fun getInputFilter() =
+        DefaultFileTypeSpecificInputFilter(ElixirFileType.INSTANCE, ElixirScriptFileType.INSTANCE)
+    override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+    override fun getName() = NAME
+    override fun getVersion() = VERSION
+
+    companion object {
+        const val VERSION = 1
+
+        val INDEXER = Indexer()
+        val NAME = ID.create<String, Void>("elixir.call_site.name_arity")
+
+        fun key(name: String, arity: Int): String = "$name/$arity"
+        fun unknownArityKey(name: String): String = "$name/?"
+
+        /**
+         * Files in [scope] that may call [name] with an arity in [arityInterval].
+         *
+         * @return `null` if the candidates can't be pruned because [arityInterval] is open.
+         */
+        fun containingFiles(name: String, arityInterval: ArityInterval, scope: GlobalSearchScope): Set<VirtualFile>? =
+            arityInterval.maximum?.let { maximum ->
+                val fileBasedIndex = FileBasedIndex.getInstance()
+                val keys = (arityInterval.minimum..maximum).map { key(name, it) } + unknownArityKey(name)
+
+                keys.flatMapTo(mutableSetOf()) { key -> fileBasedIndex.getContainingFiles(NAME, key, scope) }
+            }
+    }
+}
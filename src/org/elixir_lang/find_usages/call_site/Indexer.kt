@@ -0,0 +1,185 @@
+package org.elixir_lang.find_usages.call_site
+
+import com.intellij.psi.TokenType
+import com.intellij.psi.tree.IElementType
+import com.intellij.psi.tree.TokenSet
+import com.intellij.util.indexing.DataIndexer
+import com.intellij.util.indexing.FileContent
+import org.elixir_lang.ElixirLexer
+import org.elixir_lang.psi.ElixirTypes.*
+
+/**
+ * Finds the call sites in the token stream from [ElixirLexer], so that no PSI is built.  The arity is counted from
+ * the top-level commas in the parentheses, with keywords at the end counting as one argument, plus one for a pipe
+ * before the call or a `do` block after it.
+ *
+ * Keyword keys, such as `key:` in `call(key: value)`, are atoms and not calls, so they are never keyed.
+ */
+class Indexer : DataIndexer<String, Void, FileContent> {
+    override fun map(inputData: FileContent): Map<String, Void?> =
+        keySet(inputData.contentAsText).associateWith { null }
+
+    fun keySet(text: CharSequence): Set<String> {
+        val tokenList = tokenList(text)
+        val keySet = mutableSetOf<String>()
+
+        tokenList.forEachIndexed { index, token ->
+            if (token.type == IDENTIFIER_TOKEN && !isKeywordKey(tokenList, index)) {
+                keySet.add(key(tokenList, index, token.text))
+            }
+        }
+
+        return keySet
+    }
+
+    private class Token(val type: IElementType, val text: String)
+
+    private fun tokenList(text: CharSequence): List<Token> {
+        val lexer = ElixirLexer()
+        val tokenList = mutableListOf<Token>()
+
+        lexer.start(text)
+
+        while (true) {
+            val type = lexer.tokenType ?: break
+
+            if (type !in INSIGNIFICANT) {
+                tokenList.add(Token(type, text.subSequence(lexer.tokenStart, lexer.tokenEnd).toString()))
+            }
+
+            lexer.advance()
+        }
+
+        return tokenList
+    }
+
+    private fun key(tokenList: List<Token>, index: Int, name: String): String =
+        when (tokenList.getOrNull(index + 1)?.type) {
+            CALL -> parenthesesArity(tokenList, index + 2)?.let { arity ->
+                Index.key(name, arity + if (isPiped(tokenList, index)) 1 else 0)
+            }
+            DIVISION_OPERATOR -> if (isCaptured(tokenList, index)) {
+                tokenList.getOrNull(index + 2)?.takeIf { it.type == VALID_DECIMAL_DIGITS }?.text?.toIntOrNull()
+                    ?.let { arity -> Index.key(name, arity) }
+            } else {
+                null
+            }
+            else -> null
+        } ?: Index.unknownArityKey(name)
+
+    /**
+     * @param index the index of the [OPENING_PARENTHESIS]
+     * @return `null` if the parentheses are not closed
+     */
+    private fun parenthesesArity(tokenList: List<Token>, index: Int): Int? {
+        if (tokenList.getOrNull(index)?.type != OPENING_PARENTHESIS) {
+            return null
+        }
+
+        var depth = 0
+        var arity = 0
+        var keywords = false
+
+        for (i in index + 1 until tokenList.size) {
+            val type = tokenList[i].type
+
+            // `do:` and `end:` are keyword keys and not a block
+            if (isKeywordKey(tokenList, i)) {
+                if (depth == 0) {
+                    if (arity == 0) {
+                        arity = 1
+                    }
+
+                    keywords = true
+                }
+
+                continue
+            }
+
+            when {
+                type in OPENING -> {
+                    if (depth == 0 && arity == 0) {
+                        arity = 1
+                    }
+
+                    depth++
+                }
+                type in CLOSING -> if (depth == 0) {
+                    return arity + if (tokenList.getOrNull(i + 1)?.type == DO) 1 else 0
+                } else {
+                    depth--
+                }
+                depth == 0 -> when (type) {
+                    // trailing keywords are one argument
+                    COMMA -> if (!keywords) {
+                        arity++
+                    }
+                    // the colon after a quoted keyword key, such as `"key": value`
+                    KEYWORD_PAIR_COLON -> keywords = true
+                    else -> if (arity == 0) {
+                        arity = 1
+                    }
+                }
+            }
+        }
+
+        return null
+    }
+
+    /**
+     * Whether the token at [index] is the key of a keyword pair, such as `key` or `do` in `key: value` or `do: value`.
+     * The lexer usually makes unquoted keys [ATOM_FRAGMENT]s, but [IDENTIFIER_TOKEN], [DO] and [END] are also
+     * checked, so that `do:` and `end:` are never mistaken for a block.
+     */
+    private fun isKeywordKey(tokenList: List<Token>, index: Int): Boolean =
+        tokenList[index].type in KEYWORD_KEY && tokenList.getOrNull(index + 1)?.type == KEYWORD_PAIR_COLON
+
+    private fun isPiped(tokenList: List<Token>, index: Int): Boolean =
+        tokenList.getOrNull(qualifierStart(tokenList, index) - 1)?.let { it.type == ARROW_OPERATOR && it.text == "|>" }
+            ?: false
+
+    private fun isCaptured(tokenList: List<Token>, index: Int): Boolean =
+        tokenList.getOrNull(qualifierStart(tokenList, index) - 1)?.type == CAPTURE_OPERATOR
+
+    /**
+     * @return the index of the first token of `Qualifier.Alias.` before the identifier at [index] or [index] if it
+     *   is unqualified.
+     */
+    private fun qualifierStart(tokenList: List<Token>, index: Int): Int {
+        var start = index
+
+        while (tokenList.getOrNull(start - 1)?.type == DOT_OPERATOR &&
+            tokenList.getOrNull(start - 2)?.type.let { it == ALIAS_TOKEN || it == IDENTIFIER_TOKEN }) {
+            start -= 2
+        }
+
+        return start
+    }
+
+    companion object {
+        private val INSIGNIFICANT = TokenSet.create(
+            TokenType.WHITE_SPACE,
+            COMMENT,
+            EOL,
+            ESCAPED_EOL
+        )
+        private val KEYWORD_KEY = TokenSet.create(ATOM_FRAGMENT, IDENTIFIER_TOKEN, DO, END)
+        private val OPENING = TokenSet.create(
+            OPENING_PARENTHESIS,
+            OPENING_BRACKET,
+            OPENING_CURLY,
+            OPENING_BIT,
+            FN,
+            DO,
+            INTERPOLATION_START
+        )
+        private val CLOSING = TokenSet.create(
+            CLOSING_PARENTHESIS,
+            CLOSING_BRACKET,
+            CLOSING_CURLY,
+            CLOSING_BIT,
+            END,
+            INTERPOLATION_END
+        )
+    }
+}
@@ -1,10 +1,16 @@
 package org.elixir_lang.find_usages.handler
 
 import com.intellij.find.findUsages.FindUsagesHandler
+import com.intellij.find.findUsages.FindUsagesOptions
+import com.intellij.openapi.application.runReadAction
 import com.intellij.openapi.application.ex.ApplicationInfoEx
 import com.intellij.openapi.util.BuildNumber
 import com.intellij.psi.PsiElement
 import com.intellij.psi.ResolveState
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.usageView.UsageInfo
+import com.intellij.util.Processor
+import org.elixir_lang.find_usages.ParallelReferences
 import org.elixir_lang.find_usages.toPsiElementList
 import org.elixir_lang.psi.ArityInterval
 import org.elixir_lang.psi.CallDefinitionClause
@@ -51,6 +57,40 @@ class Call(call: Call) : FindUsagesHandler(call) {
      override fun getPrimaryElements(): Array<PsiElement> = _primaryElements
     override fun getSecondaryElements(): Array<PsiElement> = _secondaryElements
 
+    /**
+     * Usages of call definition clauses in a [GlobalSearchScope] are found with [ParallelReferences] instead of
+     * resolving each candidate reference in turn.  Text occurrences are still searched by `super`.
+     */
+    override fun processElementUsages(
+        element: PsiElement,
+        processor: Processor<in UsageInfo>,
+        options: FindUsagesOptions
+    ): Boolean {
+        val searchScope = options.searchScope
+        val nameArityInterval = if (options.isUsages && searchScope is GlobalSearchScope && element is Call) {
+            runReadAction {
+                element
+                    .takeIf { CallDefinitionClause.`is`(it) }
+                    ?.let { nameArityInterval(it, ResolveState.initial()) }
+            }
+        } else {
+            null
+        }
+
+        return if (nameArityInterval != null) {
+            ParallelReferences.process(
+                element,
+                nameArityInterval.name,
+                nameArityInterval.arityInterval,
+                searchScope as GlobalSearchScope,
+                processor
+            ) &&
+                    super.processElementUsages(element, processor, options.clone().apply { isUsages = false })
+        } else {
+            super.processElementUsages(element, processor, options)
+        }
+    }
+
     private fun resolvedElements() =
             if (AlreadyResolved.alreadyResolved) {
                 super.getPrimaryElements()
@@ -0,0 +1,172 @@
+package org.elixir_lang.lexer;
+
+import com.intellij.lexer.FlexLexer;
+import com.intellij.psi.tree.IElementType;
+import org.elixir_lang.ElixirFlexLexer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Wraps an {@link ElixirFlexLexer}, so that {@link #yystate()} encodes the full lexer state, including the
+ * {@link Stack} of heredocs, sigils and interpolations, and {@link #reset(CharSequence, int, int, int)} restores it.
+ * The highlighter can then restart lexing at any token instead of only where the stack is empty, such as at the top of
+ * an enclosing heredoc.
+ *
+ * States with an empty stack are the {@link ElixirFlexLexer#yystate()} as-is.  Other states are
+ * {@link #CHECKPOINT_BASE} plus the index of the state in this lexer's checkpoint table, which is kept per instance,
+ * and so per document for highlighting lexers.
+ */
+public class Restartable implements FlexLexer {
+    /*
+     * CONSTANTS
+     */
+
+    public static final int CHECKPOINT_BASE = 0x10000;
+    /**
+     * State when the checkpoint table is full.  It is not restartable.
+     */
+    public static final int NOT_CHECKPOINTED = CHECKPOINT_BASE - 1;
+    private static final int MAX_CHECKPOINT_COUNT = 0x10000;
+
+    /*
+     * Fields
+     */
+
+    @NotNull
+    private final ElixirFlexLexer flex;
+    private final List<Checkpoint> checkpointList = new ArrayList<>();
+    private final Map<Checkpoint, Integer> stateByCheckpoint = new HashMap<>();
+    private int cachedLexicalState = -1;
+    private int cachedModificationCount = -1;
+    private int cachedState;
+
+    /*
+     * Constructors
+     */
+
+    public Restartable(@NotNull ElixirFlexLexer flex) {
+        this.flex = flex;
+    }
+
+    /*
+     * Instance Methods
+     */
+
+    @NotNull
+    public ElixirFlexLexer getFlex() {
+        return flex;
+    }
+
+    public boolean isRestartableState(int state) {
+        return state < NOT_CHECKPOINTED || (state >= CHECKPOINT_BASE && state - CHECKPOINT_BASE < checkpointList.size());
+    }
+
+    @Override
+    public void yybegin(int state) {
+        flex.yybegin(state);
+    }
+
+    @Override
+    public int yystate() {
+        int lexicalState = flex.yystate();
+        Stack stack = flex.getStack();
+
+        if (stack.size() == 0) {
+            return lexicalState;
+        }
+
+        int modificationCount = stack.getModificationCount();
+
+        if (lexicalState != cachedLexicalState || modificationCount != cachedModificationCount) {
+            cachedLexicalState = lexicalState;
+            cachedModificationCount = modificationCount;
+            cachedState = checkpoint(lexicalState, stack);
+        }
+
+        return cachedState;
+    }
+
+    @Override
+    public int getTokenStart() {
+        return flex.getTokenStart();
+    }
+
+    @Override
+    public int getTokenEnd() {
+        return flex.getTokenEnd();
+    }
+
+    @Override
+    public IElementType advance() throws IOException {
+        return flex.advance();
+    }
+
+    @Override
+    public void reset(CharSequence buf, int start, int end, int initialState) {
+        if (initialState >= CHECKPOINT_BASE && initialState - CHECKPOINT_BASE < checkpointList.size()) {
+            Checkpoint checkpoint = checkpointList.get(initialState - CHECKPOINT_BASE);
+
+            flex.reset(buf, start, end, checkpoint.lexicalState);
+            flex.getStack().restore(checkpoint.stackFrameList);
+        } else if (initialState >= NOT_CHECKPOINTED) {
+            flex.reset(buf, start, end, ElixirFlexLexer.YYINITIAL);
+        } else {
+            flex.reset(buf, start, end, initialState);
+        }
+    }
+
+    private int checkpoint(int lexicalState, @NotNull Stack stack) {
+        Checkpoint checkpoint = new Checkpoint(lexicalState, stack.snapshot());
+        Integer state = stateByCheckpoint.get(checkpoint);
+
+        if (state == null) {
+            if (checkpointList.size() < MAX_CHECKPOINT_COUNT) {
+                state = CHECKPOINT_BASE + checkpointList.size();
+                checkpointList.add(checkpoint);
+                stateByCheckpoint.put(checkpoint, state);
+            } else {
+                state = NOT_CHECKPOINTED;
+            }
+        }
+
+        return state;
+    }
+
+    private static class Checkpoint {
+        private final int lexicalState;
+        @NotNull
+        private final List<StackFrame> stackFrameList;
+
+        Checkpoint(int lexicalState, @NotNull List<StackFrame> stackFrameList) {
+            this.lexicalState = lexicalState;
+            this.stackFrameList = stackFrameList;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Checkpoint)) {
+                return false;
+            }
+
+            Checkpoint otherCheckpoint = (Checkpoint) other;
+
+            return lexicalState == otherCheckpoint.lexicalState &&
+                    stackFrameList.equals(otherCheckpoint.stackFrameList);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lexicalState, stackFrameList);
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package org.elixir_lang.lexer;
 
 import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Created by luke.imhoff on 8/19/14.
  */
 public class Stack {
     private final java.util.Stack<StackFrame> stack = new java.util.Stack<>();
+    /**
+     * Incremented on every change to the stack or its frames, so that {@link Restartable} can reuse the state it
+     * encoded for the same lexical state when the stack hasn't changed.  Never reset, so no two different stacks share
+     * a count.
+     */
+    private int modificationCount = 0;
 
     public void clear() {
         stack.clear();
+        modificationCount++;
+    }
+
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     public int size() {
@@ -36,12 +51,42 @@ public class Stack {
         }
 
         stack.push(stackFrame);
+        modificationCount++;
     }
 
     public StackFrame pop() {
+        modificationCount++;
+
         return stack.pop();
     }
 
+    /**
+     * @return copies of the frames from bottom to top, so later changes to this stack don't change the snapshot.
+     */
+    @NotNull
+    public List<StackFrame> snapshot() {
+        List<StackFrame> snapshot = new ArrayList<>(stack.size());
+
+        for (StackFrame stackFrame : stack) {
+            snapshot.add(new StackFrame(stackFrame));
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Replaces the frames with copies of a {@link #snapshot()}.
+     */
+    public void restore(@NotNull List<StackFrame> snapshot) {
+        stack.clear();
+
+        for (StackFrame stackFrame : snapshot) {
+            stack.push(new StackFrame(stackFrame));
+        }
+
+        modificationCount++;
+    }
+
     public boolean isGroup() {
         return stack.peek().isGroup();
     }
@@ -56,10 +101,12 @@ public class Stack {
 
     public void nameSigil(char sigilName) {
         stack.peek().nameSigil(sigilName);
+        modificationCount++;
     }
 
     public void setPromoter(String promoter) {
         stack.peek().setPromoter(promoter);
+        modificationCount++;
     }
 
     public IElementType sigilNameType() {
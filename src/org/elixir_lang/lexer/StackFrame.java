@@ -5,6 +5,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Created by luke.imhoff on 8/19/14.
@@ -48,6 +49,36 @@ public class StackFrame {
         this.promoter = promoter;
     }
 
+    public StackFrame(@NotNull StackFrame stackFrame) {
+        this.interpolation = stackFrame.interpolation;
+        this.lastLexicalState = stackFrame.lastLexicalState;
+        this.promoter = stackFrame.promoter;
+        this.sigilName = stackFrame.sigilName;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof StackFrame)) {
+            return false;
+        }
+
+        StackFrame otherStackFrame = (StackFrame) other;
+
+        return Objects.equals(interpolation, otherStackFrame.interpolation) &&
+                Objects.equals(lastLexicalState, otherStackFrame.lastLexicalState) &&
+                Objects.equals(promoter, otherStackFrame.promoter) &&
+                Objects.equals(sigilName, otherStackFrame.sigilName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(interpolation, lastLexicalState, promoter, sigilName);
+    }
+
     public boolean isGroup() {
         return this.promoter != null;
     }
@@ -0,0 +1,28 @@
+package org.elixir_lang.protocol.implementation
+
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.DataInputOutputUtil
+import java.io.DataInput
+import java.io.DataOutput
+
+/**
+ * An implementation of a protocol derived with `@derive` from the `for: Any` implementation in a file.
+ *
+ * @param offset the start offset of the `@derive` call in the file
+ */
+data class Entry(val offset: Int) {
+    object ListExternalizer : DataExternalizer<List<Entry>> {
+        override fun save(out: DataOutput, value: List<Entry>) {
+            DataInputOutputUtil.writeINT(out, value.size)
+
+            for (entry in value) {
+                DataInputOutputUtil.writeINT(out, entry.offset)
+            }
+        }
+
+        override fun read(`in`: DataInput): List<Entry> =
+            List(DataInputOutputUtil.readINT(`in`)) {
+                Entry(offset = DataInputOutputUtil.readINT(`in`))
+            }
+    }
+}
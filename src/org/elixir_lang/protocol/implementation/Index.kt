@@ -0,0 +1,79 @@
+package org.elixir_lang.protocol.implementation
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.parents
+import com.intellij.util.Processor
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter
+import com.intellij.util.indexing.FileBasedIndex
+import com.intellij.util.indexing.FileBasedIndexExtension
+import com.intellij.util.indexing.ID
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import org.elixir_lang.ElixirFileType
+import org.elixir_lang.ElixirScriptFileType
+import org.elixir_lang.psi.AtUnqualifiedNoParenthesesCall
+
+/**
+ * Keys: The protocol being derived.
+ * Values: The [Entry] for each module that `@derive`s the protocol.
+ *
+ * The `defimpl`s of a protocol are in the [org.elixir_lang.psi.stub.index.ImplementedProtocolName] stub index, but
+ * `@derive` module attributes aren't stubbed, so they are found with this index instead.  Only the offsets of the
+ * `@derive`s are stored, so their PSI is only found when the targets of "Go To Implementations" are needed.
+ */
+class Index : FileBasedIndexExtension<String, List<Entry>>() {
+    override fun dependsOnFileContent() = true
+    override fun getIndexer() = INDEXER
+    override fun getInputFilter() =
+        DefaultFileTypeSpecificInputFilter(ElixirFileType.INSTANCE, ElixirScriptFileType.INSTANCE)
+    override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+    override fun getName() = NAME
+    override fun getValueExternalizer(): DataExternalizer<List<Entry>> = Entry.ListExternalizer
+    override fun getVersion() = VERSION
+
+    companion object {
+        const val VERSION = 3
+
+        val INDEXER = Indexer()
+        val NAME = ID.create<String, List<Entry>>("elixir.protocol.implementation")
+
+        /**
+         * Processes the `@derive` module attributes in [scope] that derive [protocolName].
+         *
+         * @return `false` if [consumer] returned `false`
+         */
+        fun processDerivations(
+            project: Project,
+            protocolName: String,
+            scope: GlobalSearchScope,
+            consumer: Processor<in AtUnqualifiedNoParenthesesCall<*>>
+        ): Boolean {
+            val psiManager = PsiManager.getInstance(project)
+
+            return FileBasedIndex.getInstance().processValues(
+                NAME,
+                protocolName,
+                null,
+                { virtualFile, entryList ->
+                    psiManager.findFile(virtualFile)?.let { psiFile ->
+                        entryList.all { entry ->
+                            element(psiFile, entry)?.let { consumer.process(it) } ?: true
+                        }
+                    } ?: true
+                },
+                scope
+            )
+        }
+
+        private fun element(psiFile: PsiFile, entry: Entry): AtUnqualifiedNoParenthesesCall<*>? =
+            psiFile
+                .findElementAt(entry.offset)
+                ?.parents(withSelf = false)
+                ?.filterIsInstance<AtUnqualifiedNoParenthesesCall<*>>()
+                ?.firstOrNull { it.textRange.startOffset == entry.offset }
+    }
+}
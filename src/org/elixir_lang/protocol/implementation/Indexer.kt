@@ -0,0 +1,79 @@
+package org.elixir_lang.protocol.implementation
+
+import com.intellij.psi.PsiElement
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.util.indexing.DataIndexer
+import com.intellij.util.indexing.FileContent
+import org.elixir_lang.psi.AtUnqualifiedNoParenthesesCall
+import org.elixir_lang.psi.ElixirList
+import org.elixir_lang.psi.ElixirTuple
+import org.elixir_lang.psi.QualifiableAlias
+import org.elixir_lang.psi.CallDefinitionClause.enclosingModularMacroCall
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.name.Function.DEFMODULE
+import org.elixir_lang.psi.call.name.Module.KERNEL
+import org.elixir_lang.psi.impl.identifierName
+import org.elixir_lang.psi.impl.stripAccessExpression
+
+/**
+ * Indexes the `@derive`s in a file.  Most files have none, so the PSI is only built for files whose text contains
+ * `@derive`.
+ */
+class Indexer : DataIndexer<String, List<Entry>, FileContent> {
+    override fun map(inputData: FileContent): Map<String, List<Entry>> =
+        if (inputData.contentAsText.contains(DERIVE_ATTRIBUTE)) {
+            val entryListByProtocolName = mutableMapOf<String, MutableList<Entry>>()
+
+            PsiTreeUtil.processElements(inputData.psiFile) { element ->
+                if (element is AtUnqualifiedNoParenthesesCall<*>) {
+                    derive(element) { protocolName, entry ->
+                        entryListByProtocolName.getOrPut(protocolName, ::mutableListOf).add(entry)
+                    }
+                }
+
+                true
+            }
+
+            entryListByProtocolName
+        } else {
+            emptyMap()
+        }
+
+    /**
+     * `@derive Protocol` or `@derive [Protocol, {Protocol, options}]` in a `defmodule`
+     */
+    private fun derive(
+        atUnqualifiedNoParenthesesCall: AtUnqualifiedNoParenthesesCall<*>,
+        consumer: (String, Entry) -> Unit
+    ) {
+        if (atUnqualifiedNoParenthesesCall.atIdentifier.identifierName() == DERIVE) {
+            if (isInModule(atUnqualifiedNoParenthesesCall)) {
+                val entry = Entry(atUnqualifiedNoParenthesesCall.textRange.startOffset)
+
+                atUnqualifiedNoParenthesesCall
+                    .noParenthesesOneArgument
+                    .children
+                    .singleOrNull()
+                    ?.let { derivedProtocolNames(it) }
+                    ?.forEach { protocolName -> consumer(protocolName, entry) }
+            }
+        }
+    }
+
+    private fun derivedProtocolNames(element: PsiElement): List<String> =
+        when (val stripped = element.stripAccessExpression()) {
+            is QualifiableAlias -> listOf(stripped.fullyQualifiedName().removePrefix("Elixir."))
+            is ElixirList -> stripped.children.flatMap { derivedProtocolNames(it) }
+            // `{Protocol, options}`
+            is ElixirTuple -> stripped.children.firstOrNull()?.let { derivedProtocolNames(it) }.orEmpty()
+            else -> emptyList()
+        }
+
+    private fun isInModule(call: Call): Boolean =
+        enclosingModularMacroCall(call)?.isCalling(KERNEL, DEFMODULE) ?: false
+
+    companion object {
+        private const val DERIVE = "derive"
+        private const val DERIVE_ATTRIBUTE = "@$DERIVE"
+    }
+}
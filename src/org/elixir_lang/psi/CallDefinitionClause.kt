@@ -7,9 +7,11 @@ import com.intellij.usageView.UsageViewTypeLocation
 import org.elixir_lang.NameArityInterval
 import org.elixir_lang.find_usages.Provider
 import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.CanonicallyNamed
 import org.elixir_lang.psi.call.name.Function.*
 import org.elixir_lang.psi.call.name.Module.KERNEL
 import org.elixir_lang.psi.impl.enclosingMacroCall
+import org.elixir_lang.psi.scope.CallDefinitionClause.Companion.MODULAR_CANONICAL_NAME
 import org.elixir_lang.structure_view.element.CallDefinitionHead
 
 object CallDefinitionClause {
@@ -100,6 +102,29 @@ object CallDefinitionClause {
 
     fun nameIdentifier(call: Call): PsiElement? = head(call)?.let { CallDefinitionHead.nameIdentifier(it) }
 
+    /**
+     * The [ResolveState] needed to get the [nameArityInterval] of a [call] named [name].  Only names that are
+     * [NameArityInterval.adjusted] need the [MODULAR_CANONICAL_NAME] of the enclosing module.
+     */
+    @JvmStatic
+    fun resolveState(call: Call, name: String): ResolveState {
+        val initial = ResolveState.initial()
+
+        return if (NameArityInterval.nameIsAdjusted(name)) {
+            enclosingModularMacroCall(call)?.let { modular ->
+                if (Module.`is`(modular)) {
+                    modular.let { it as CanonicallyNamed }.canonicalName()?.let { modularCanonicalName ->
+                        initial.put(MODULAR_CANONICAL_NAME, modularCanonicalName)
+                    }
+                } else {
+                    null
+                }
+            } ?: initial
+        } else {
+            initial
+        }
+    }
+
     private fun functionElementDescription(
             @Suppress("UNUSED_PARAMETER") call: Call,
             location: ElementDescriptionLocation
@@ -31,24 +31,68 @@ object Protocol {
                 callDefinition.name == "__protocol__" && callDefinition.exportedArity(ResolveState.initial()) == 1
             }
 
-    fun processImplementations(defprotocol: Call, consumer: Processor<in PsiElement>) {
-        processImplementations(defprotocol.project, Module.name(defprotocol), consumer)
-    }
+    fun processImplementations(
+        defprotocol: Call,
+        scope: GlobalSearchScope = GlobalSearchScope.everythingScope(defprotocol.project),
+        consumer: Processor<in PsiElement>
+    ): Boolean = processImplementations(defprotocol.project, Module.name(defprotocol), scope, consumer)
 
-    fun processImplementations(defprotocol: ModuleImpl<*>, consumer: Processor<in PsiElement>) {
-        processImplementations(defprotocol.project, defprotocol.name, consumer)
-    }
+    fun processImplementations(
+        defprotocol: ModuleImpl<*>,
+        scope: GlobalSearchScope = GlobalSearchScope.everythingScope(defprotocol.project),
+        consumer: Processor<in PsiElement>
+    ): Boolean = processImplementations(defprotocol.project, defprotocol.name, scope, consumer)
 
-    private fun processImplementations(project: Project, name: String, consumer: Processor<in PsiElement>) {
+    /**
+     * Processes the `@derive`s of the protocol.  Unlike the `defimpl`s from [processImplementations], a `@derive` has
+     * no call definition clauses of its own because it reuses those of the `for: Any` implementation, so it is only
+     * useful as a target when navigating to the implementations of the whole protocol.
+     *
+     * @return `false` if [consumer] returned `false`
+     */
+    fun processDerivations(
+        defprotocol: Call,
+        scope: GlobalSearchScope,
+        consumer: Processor<in AtUnqualifiedNoParenthesesCall<*>>
+    ): Boolean =
+        org.elixir_lang.protocol.implementation.Index.processDerivations(
+            defprotocol.project,
+            Module.name(defprotocol),
+            scope,
+            consumer
+        )
+
+    fun processDerivations(
+        defprotocol: ModuleImpl<*>,
+        scope: GlobalSearchScope,
+        consumer: Processor<in AtUnqualifiedNoParenthesesCall<*>>
+    ): Boolean =
+        org.elixir_lang.protocol.implementation.Index.processDerivations(
+            defprotocol.project,
+            defprotocol.name,
+            scope,
+            consumer
+        )
+
+    /**
+     * Processes the `defimpl`s of the protocol, whether in source or decompiled.
+     *
+     * @return `false` if [consumer] returned `false`
+     */
+    private fun processImplementations(
+        project: Project,
+        name: String,
+        scope: GlobalSearchScope,
+        consumer: Processor<in PsiElement>
+    ): Boolean =
         StubIndex
             .getInstance()
             .processElements(
                 ImplementedProtocolName.KEY,
                 name,
                 project,
-                GlobalSearchScope.everythingScope(project),
+                scope,
                 NamedElement::class.java,
                 consumer
             )
-    }
 }
@@ -7,11 +7,11 @@ import com.intellij.psi.ResolveState
 import com.intellij.psi.util.isAncestor
 import org.elixir_lang.psi.call.Call
 
-private val VISITED_ELEMENT_SET = Key<Set<PsiElement>>("VISITED_ELEMENTS")
+private val VISITED_ELEMENT_SET = Key<VisitedElementSet>("VISITED_ELEMENTS")
 
 fun <T : PsiElement> T.takeUnlessHasBeenVisited(state: ResolveState): T? = takeUnless { state.hasBeenVisited(it) }
 
-fun ResolveState.hasBeenVisited(element: PsiElement): Boolean = this.get(VISITED_ELEMENT_SET).contains(element)
+fun ResolveState.hasBeenVisited(element: PsiElement): Boolean = this.get(VISITED_ELEMENT_SET)?.contains(element) ?: false
 
 fun ResolveState.visitedElementSet(): Set<PsiElement> = this.get(VISITED_ELEMENT_SET).orEmpty()
 
@@ -20,26 +20,58 @@ fun ResolveState.putInitialVisitedElement(visitedElement: PsiElement): ResolveSt
         "VISITED_ELEMENT_SET already populated"
     }
 
-    return this.put(VISITED_ELEMENT_SET, setOf(visitedElement))
+    return this.put(VISITED_ELEMENT_SET, VisitedElementSet.of(visitedElement))
 }
 
 
 fun ResolveState.putVisitedElements(other: ResolveState): ResolveState =
-        putVisitedElements(other.visitedElementSet())
+    other.get(VISITED_ELEMENT_SET)
+            ?.let { otherVisitedElementSet ->
+                // shares the chain of `other` when this state has no visited elements of its own
+                val visitedElementSet = this.get(VISITED_ELEMENT_SET)
+                        ?.plus(otherVisitedElementSet)
+                        ?: otherVisitedElementSet
+
+                this.put(VISITED_ELEMENT_SET, visitedElementSet)
+            }
+            ?: this
 
-fun ResolveState.putVisitedElements(visitedElements: Iterable<PsiElement>): ResolveState =
-    visitedElements.fold(this) { acc, visitedElement ->
-        acc.putVisitedElement(visitedElement)
+fun ResolveState.putVisitedElements(visitedElements: Iterable<PsiElement>): ResolveState {
+    val visitedElementSet = this.get(VISITED_ELEMENT_SET)
+
+    return if (visitedElementSet != null) {
+        val extendedVisitedElementSet = visitedElements.fold(visitedElementSet) { acc, visitedElement ->
+            acc + visitedElement
+        }
+
+        if (extendedVisitedElementSet !== visitedElementSet) {
+            this.put(VISITED_ELEMENT_SET, extendedVisitedElementSet)
+        } else {
+            this
+        }
+    } else {
+        visitedElements.fold(this) { acc, visitedElement ->
+            acc.putVisitedElement(visitedElement)
+        }
     }
+}
 
 fun ResolveState.putVisitedElement(visitedElement: PsiElement): ResolveState {
-    val visitedElementSet = this.get(VISITED_ELEMENT_SET) ?: emptySet()
+    val visitedElementSet = this.get(VISITED_ELEMENT_SET)
 
-    if (this.get(VISITED_ELEMENT_SET) == null) {
-       Logger.getInstance(ResolveState::class.java).error("VISITED_ELEMENT_SET is null.  putInitialVisitedElement was not called")
-    }
+    return if (visitedElementSet != null) {
+        val extendedVisitedElementSet = visitedElementSet + visitedElement
+
+        if (extendedVisitedElementSet !== visitedElementSet) {
+            this.put(VISITED_ELEMENT_SET, extendedVisitedElementSet)
+        } else {
+            this
+        }
+    } else {
+        Logger.getInstance(ResolveState::class.java).error("VISITED_ELEMENT_SET is null.  putInitialVisitedElement was not called")
 
-    return this.put(VISITED_ELEMENT_SET, visitedElementSet + setOf(visitedElement))
+        this.put(VISITED_ELEMENT_SET, VisitedElementSet.of(visitedElement))
+    }
 }
 
 private val ANCESTOR_UNQUOTE = Key<Call>("ANCESTOR_UNQUOTE")
@@ -49,6 +81,18 @@ fun ResolveState.putAncestorUnquote(descendent: PsiElement): ResolveState =
             ?.let { put(ANCESTOR_UNQUOTE, it) }
             ?: this
 
+/**
+ * The visited elements and ancestor `unquote` of [walked] on top of this state, so that an element found by a walk
+ * from a different state, such as a summary recorded by [Using.treeWalkUpSummary], is processed as if it had been
+ * found walking from this state.
+ */
+fun ResolveState.putWalkedState(walked: ResolveState): ResolveState =
+    putVisitedElements(walked).let { resolveState ->
+        walked.get(ANCESTOR_UNQUOTE)
+                ?.let { resolveState.put(ANCESTOR_UNQUOTE, it) }
+                ?: resolveState
+    }
+
 fun ResolveState.containsAncestorUnquote(ancestor: PsiElement): Boolean =
         get(ANCESTOR_UNQUOTE)
                 ?.let { ancestor.isAncestor(it) }
@@ -0,0 +1,97 @@
+package org.elixir_lang.psi
+
+import com.intellij.psi.PsiElement
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.impl.call.finalArguments
+import org.elixir_lang.psi.impl.call.macroChildCallList
+import org.elixir_lang.psi.impl.stripAccessExpression
+import org.elixir_lang.structure_view.element.structure.Structure
+
+/**
+ * The fields of the struct defined directly in a `defmodule` by `defstruct` or by an Ecto `schema` or
+ * `embedded_schema`.  Only literal field names are found: `defstruct keys` and fields added by other macros are not.
+ */
+object StructFields {
+    private const val EMBEDDED_SCHEMA = "embedded_schema"
+    private const val SCHEMA = "schema"
+
+    /**
+     * Ecto schema macros whose first argument is the field name
+     */
+    private val SCHEMA_FIELD_FUNCTION_NAME_SET =
+        setOf("belongs_to", "embeds_many", "embeds_one", "field", "has_many", "has_one", "many_to_many")
+
+    @JvmStatic
+    fun nameSet(defmodule: Call): Set<String> {
+        val nameSet = linkedSetOf<String>()
+
+        for (childCall in defmodule.macroChildCallList()) {
+            if (Structure.`is`(childCall)) {
+                childCall.finalArguments()?.singleOrNull()?.let { addDefstructFieldNames(nameSet, it) }
+            } else if (isSchema(childCall)) {
+                addSchemaFieldNames(nameSet, childCall)
+            }
+        }
+
+        return nameSet
+    }
+
+    private fun addDefstructFieldNames(nameSet: MutableSet<String>, argument: PsiElement) {
+        when (val stripped = argument.stripAccessExpression()) {
+            is QuotableKeywordList -> addKeywordKeys(nameSet, stripped)
+            is ElixirList -> for (child in stripped.children) {
+                when (val strippedChild = child.stripAccessExpression()) {
+                    is QuotableKeywordList -> addKeywordKeys(nameSet, strippedChild)
+                    is ElixirAtom -> strippedChild.name?.let { nameSet.add(it) }
+                }
+            }
+            // `defstruct keys` and other metaprogramming
+            else -> Unit
+        }
+    }
+
+    private fun addKeywordKeys(nameSet: MutableSet<String>, quotableKeywordList: QuotableKeywordList) {
+        for (quotableKeywordPair in quotableKeywordList.quotableKeywordPairList()) {
+            nameSet.add(quotableKeywordPair.keywordKey.text)
+        }
+    }
+
+    private fun isSchema(call: Call): Boolean =
+        call.hasDoBlockOrKeyword() && when (call.functionName()) {
+            SCHEMA -> call.resolvedFinalArity() == 2
+            EMBEDDED_SCHEMA -> call.resolvedFinalArity() == 1
+            else -> false
+        }
+
+    private fun addSchemaFieldNames(nameSet: MutableSet<String>, schema: Call) {
+        // `@primary_key false` is not checked, so `id` may be a false positive
+        nameSet.add("id")
+
+        if (schema.functionName() == SCHEMA) {
+            nameSet.add("__meta__")
+        }
+
+        for (fieldCall in schema.macroChildCallList()) {
+            when (val functionName = fieldCall.functionName()) {
+                "timestamps" -> {
+                    nameSet.add("inserted_at")
+                    nameSet.add("updated_at")
+                }
+                in SCHEMA_FIELD_FUNCTION_NAME_SET ->
+                    fieldCall
+                        .primaryArguments()
+                        ?.firstOrNull()
+                        ?.stripAccessExpression()
+                        ?.let { it as? ElixirAtom }
+                        ?.name
+                        ?.let { fieldName ->
+                            nameSet.add(fieldName)
+
+                            if (functionName == "belongs_to") {
+                                nameSet.add("${fieldName}_id")
+                            }
+                        }
+            }
+        }
+    }
+}
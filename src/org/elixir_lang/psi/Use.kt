@@ -31,17 +31,28 @@ object Use {
         // don't descend back into `use` when the entrance is the alias to the `use` like `MyAlias` in `use MyAlias`.
         if (!useCall.isAncestor(resolveState.get(ENTRANCE))) {
             val useCallResolveState = resolveState.putVisitedElement(useCall)
+            val usedModulars = modulars(useCall)
 
-            outer@ for (modular in modulars(useCall)) {
+            outer@ for (modular in usedModulars) {
                 for (definer in Using.definers(modular)) {
                     val childResolveState = useCallResolveState.putVisitedElement(definer)
 
-                    accumulatedKeepProcessing = Using.treeWalkUp(
-                        using = definer,
-                        use = useCall,
-                        resolveState = childResolveState,
-                        keepProcessing = keepProcessing
-                    )
+                    accumulatedKeepProcessing = if (definer is Call) {
+                        Using.treeWalkUpSummary(
+                            using = definer,
+                            use = useCall,
+                            usedModulars = usedModulars,
+                            resolveState = childResolveState,
+                            keepProcessing = keepProcessing
+                        )
+                    } else {
+                        Using.treeWalkUp(
+                            using = definer,
+                            use = useCall,
+                            resolveState = childResolveState,
+                            keepProcessing = keepProcessing
+                        )
+                    }
 
                     if (!accumulatedKeepProcessing) {
                         break@outer
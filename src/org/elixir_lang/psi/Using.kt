@@ -1,22 +1,152 @@
 package org.elixir_lang.psi
 
+import com.intellij.openapi.util.Key
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiPolyVariantReference
 import com.intellij.psi.ResolveState
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import com.intellij.psi.util.isAncestor
 import org.elixir_lang.beam.psi.impl.CallDefinitionImpl
 import org.elixir_lang.beam.psi.impl.ModuleImpl
 import org.elixir_lang.psi.CallDefinitionClause.nameArityInterval
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.psi.call.name.Function.*
 import org.elixir_lang.psi.call.name.Module.KERNEL
+import org.elixir_lang.psi.impl.ElixirPsiImplUtil.ENTRANCE
 import org.elixir_lang.psi.impl.call.finalArguments
 import org.elixir_lang.psi.impl.call.macroChildCallSequence
 import org.elixir_lang.psi.impl.call.stabBodyChildExpressions
 import org.elixir_lang.psi.impl.maybeModularNameToModulars
 import org.elixir_lang.psi.impl.stripAccessExpression
 import org.elixir_lang.structure_view.element.Timed
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
 
 object Using {
+    private val SUMMARY_BY_ARGUMENTS: Key<CachedValue<ConcurrentMap<Arguments, List<Pair<PsiElement, ResolveState>>>>> =
+        Key.create("Using.SUMMARY_BY_ARGUMENTS")
+
+    /**
+     * The `__using__` and [Arguments] of the summaries being recorded on this thread, so that a `quote` that `use`s the
+     * module being summarized walks the `quote` instead of recursively recording the same summary.
+     */
+    private val COMPUTING_SUMMARIES: ThreadLocal<MutableSet<Pair<Call, Arguments>>> =
+        ThreadLocal.withInitial { mutableSetOf() }
+
+    /**
+     * The parts of a `use` call that a walk of `__using__` depends on: the `which` atom, as in
+     * `use MyAppWeb, :controller`, and the modulars the `use`d alias resolves to, which `__MODULE__` resolves to when
+     * passed to `apply`.  Two `use` calls with equal [Arguments] add the same elements to the scope.
+     */
+    private data class Arguments(val which: String, val usedModulars: Set<PsiElement>)
+
+    /**
+     * Like [treeWalkUp], but replays the elements added to the scope by the `__using__` [using] (imports, aliases,
+     * requires, and the injected call definitions and module attributes), each with the [ResolveState] it was found
+     * with, from a summary cached on [using] for the [Arguments] of [use], as in `use MyAppWeb, :controller`.  The
+     * `quote` block then isn't resolved and walked again for every call, variable and module attribute resolved in the
+     * module calling [use].
+     *
+     * There is no summary until a walk finishes: the walk records the summary while calling [keepProcessing], so it
+     * still stops as soon as [keepProcessing] returns `false`.  Summaries can include elements from other files, such
+     * as from an `apply` to another module, so they are cached until any PSI changes.
+     *
+     * @param usedModulars the modulars the alias passed to [use] resolves to, as from [Use.modulars].
+     */
+    fun treeWalkUpSummary(
+        using: Call,
+        use: Call,
+        usedModulars: Set<PsiElement>,
+        resolveState: ResolveState,
+        keepProcessing: (PsiElement, ResolveState) -> Boolean
+    ): Boolean {
+        val arguments = Arguments(which(use) ?: "", usedModulars)
+        val key = using to arguments
+        val computingSummaries = COMPUTING_SUMMARIES.get()
+
+        // Import.treeWalkUp and Use.treeWalkUp depend on the ENTRANCE, so a walk entered from inside the `__using__`
+        // can't be shared
+        return if (computingSummaries.contains(key) || using.isAncestor(resolveState.get(ENTRANCE))) {
+            treeWalkUp(using, use, resolveState, keepProcessing)
+        } else {
+            val summaryByArguments = CachedValuesManager.getCachedValue(using, SUMMARY_BY_ARGUMENTS) {
+                CachedValueProvider.Result.create(ConcurrentHashMap(), PsiModificationTracker.MODIFICATION_COUNT)
+            }
+            val summary = summaryByArguments[arguments]
+
+            if (summary != null) {
+                summary.all { (element, summaryResolveState) ->
+                    replay(element, summaryResolveState, resolveState, keepProcessing)
+                }
+            } else {
+                computingSummaries.add(key)
+
+                try {
+                    val recording = mutableListOf<Pair<PsiElement, ResolveState>>()
+
+                    val finished = treeWalkUp(using, use, summaryResolveState(using)) { element, elementResolveState ->
+                        recording.add(element to elementResolveState)
+
+                        replay(element, elementResolveState, resolveState, keepProcessing)
+                    }
+
+                    if (finished) {
+                        summaryByArguments[arguments] = recording
+                    }
+
+                    finished
+                } finally {
+                    computingSummaries.remove(key)
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls [keepProcessing] on [element] found with [summaryResolveState] as if it had been found walking from
+     * [resolveState], unless [resolveState] already visited it, as the direct walk would have filtered it.
+     * [resolveState] already has the caller's own `use` and [using] visited, as [Use.treeWalkUp] puts them before
+     * calling [treeWalkUpSummary].
+     */
+    private fun replay(
+        element: PsiElement,
+        summaryResolveState: ResolveState,
+        resolveState: ResolveState,
+        keepProcessing: (PsiElement, ResolveState) -> Boolean
+    ): Boolean =
+        resolveState.hasBeenVisited(element) ||
+                keepProcessing(element, resolveState.putWalkedState(summaryResolveState))
+
+    /**
+     * The [ResolveState] summaries are recorded from.  It doesn't depend on where resolution entered or on which `use`
+     * is being walked, so that neither the first caller's entrance nor its `use` ends up in the recorded states and
+     * the summary can be replayed for any resolution outside of [using].
+     */
+    private fun summaryResolveState(using: Call): ResolveState =
+        ResolveState.initial().put(ENTRANCE, using).putInitialVisitedElement(using)
+
+    /**
+     * The name of the atom passed as the second argument to `use`, such as `controller` in `use MyAppWeb, :controller`
+     */
+    private fun which(useCall: Call?): String? =
+        useCall?.finalArguments()?.let { arguments ->
+            if (arguments.size == 2) {
+                when (val which = arguments[1].stripAccessExpression()) {
+                    is ElixirAtom -> if (which.line == null) {
+                        which.lastChild.text
+                    } else {
+                        null
+                    }
+                    else -> null
+                }
+            } else {
+                null
+            }
+        }
+
     fun treeWalkUp(
         using: PsiElement,
         use: Call?,
@@ -75,20 +205,7 @@ object Using {
                                 for (modular in modulars) {
                                     val modularResolveState = resolveState.putVisitedElement(modular)
 
-                                    val name = useCall?.finalArguments()?.let { arguments ->
-                                        if (arguments.size == 2) {
-                                            when (val which = arguments[1].stripAccessExpression()) {
-                                                is ElixirAtom -> if (which.line == null) {
-                                                    which.lastChild.text
-                                                } else {
-                                                    null
-                                                }
-                                                else -> null
-                                            }
-                                        } else {
-                                            null
-                                        }
-                                    }
+                                    val name = which(useCall)
 
                                     accumlatedKeepProcessing = if (name != null) {
                                         Modular.callDefinitionClauseCallFoldWhile(
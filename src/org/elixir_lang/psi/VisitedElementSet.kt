@@ -0,0 +1,140 @@
+package org.elixir_lang.psi
+
+import com.intellij.psi.PsiElement
+
+/**
+ * An immutable set of the elements visited during resolution.  [plus] shares everything already visited instead of
+ * copying it: the elements are kept both as a chain back to the initially visited element, for iterating in visit
+ * order, and in a persistent hash trie, for [contains].  Both [plus] and [contains] are O(log n), with a branching
+ * factor of 32, so extending a chain of any length only allocates the new link and the trie path to the new element.
+ */
+class VisitedElementSet private constructor(
+    private val element: PsiElement,
+    private val parent: VisitedElementSet?,
+    private val trie: Trie
+) : AbstractSet<PsiElement>() {
+    override val size: Int = (parent?.size ?: 0) + 1
+
+    override fun contains(element: PsiElement): Boolean = trie.contains(element, element.hashCode(), 0)
+
+    /**
+     * Iterates in the order the elements were visited, like the `LinkedHashSet` this replaced.
+     */
+    override fun iterator(): Iterator<PsiElement> {
+        val elements = arrayOfNulls<PsiElement>(size)
+        var index = size
+
+        chain().forEach { elements[--index] = it.element }
+
+        return elements.iterator().asSequence().map { it!! }.iterator()
+    }
+
+    /**
+     * Adds the visited elements of [other] that are not already in this set, in the order [other] visited them.
+     */
+    fun plus(other: VisitedElementSet): VisitedElementSet =
+        if (other === this) {
+            this
+        } else {
+            other.fold(this) { acc, visitedElement -> acc + visitedElement }
+        }
+
+    operator fun plus(element: PsiElement): VisitedElementSet =
+        if (contains(element)) {
+            this
+        } else {
+            VisitedElementSet(element, this, trie.plus(element, element.hashCode(), 0))
+        }
+
+    private fun chain(): Sequence<VisitedElementSet> = generateSequence(this) { it.parent }
+
+    /**
+     * A node of a hash array mapped trie.  Each level uses [BITS] bits of the hash to pick one of the [entries] present
+     * in [bitmap].  An entry is a [PsiElement], a child [Trie], or a [Collision] of elements with the same hash.
+     */
+    private class Trie(private val bitmap: Int, private val entries: Array<Any>) {
+        fun contains(element: PsiElement, hash: Int, shift: Int): Boolean {
+            val bit = bit(hash, shift)
+
+            return if (bitmap and bit == 0) {
+                false
+            } else {
+                when (val entry = entries[index(bit)]) {
+                    is Trie -> entry.contains(element, hash, shift + BITS)
+                    is Collision -> entry.elements.contains(element)
+                    else -> entry == element
+                }
+            }
+        }
+
+        /**
+         * @return a new [Trie] sharing all but the path to [element].  Only called when [element] is not already in
+         *   the trie.
+         */
+        fun plus(element: PsiElement, hash: Int, shift: Int): Trie {
+            val bit = bit(hash, shift)
+            val index = index(bit)
+
+            return if (bitmap and bit == 0) {
+                val newEntries = arrayOfNulls<Any>(entries.size + 1)
+                System.arraycopy(entries, 0, newEntries, 0, index)
+                newEntries[index] = element
+                System.arraycopy(entries, index, newEntries, index + 1, entries.size - index)
+
+                @Suppress("UNCHECKED_CAST")
+                Trie(bitmap or bit, newEntries as Array<Any>)
+            } else {
+                val newEntry = when (val entry = entries[index]) {
+                    is Trie -> entry.plus(element, hash, shift + BITS)
+                    is Collision -> Collision(entry.elements + element)
+                    else -> {
+                        val entryHash = entry.hashCode()
+
+                        if (entryHash == hash) {
+                            Collision(listOf(entry as PsiElement, element))
+                        } else {
+                            of(entry, entryHash, element, hash, shift + BITS)
+                        }
+                    }
+                }
+
+                Trie(bitmap, entries.copyOf().also { it[index] = newEntry })
+            }
+        }
+
+        private fun index(bit: Int): Int = Integer.bitCount(bitmap and (bit - 1))
+
+        companion object {
+            val EMPTY = Trie(0, emptyArray())
+
+            private fun bit(hash: Int, shift: Int): Int = 1 shl ((hash ushr shift) and MASK)
+
+            /**
+             * A [Trie] of two entries with different hashes that have the same bits below [shift]
+             */
+            private fun of(first: Any, firstHash: Int, second: Any, secondHash: Int, shift: Int): Trie {
+                val firstBit = bit(firstHash, shift)
+                val secondBit = bit(secondHash, shift)
+
+                return when {
+                    firstBit == secondBit ->
+                        Trie(firstBit, arrayOf<Any>(of(first, firstHash, second, secondHash, shift + BITS)))
+                    Integer.compareUnsigned(firstBit, secondBit) < 0 ->
+                        Trie(firstBit or secondBit, arrayOf<Any>(first, second))
+                    else ->
+                        Trie(firstBit or secondBit, arrayOf<Any>(second, first))
+                }
+            }
+        }
+    }
+
+    private class Collision(val elements: List<PsiElement>)
+
+    companion object {
+        private const val BITS = 5
+        private const val MASK = (1 shl BITS) - 1
+
+        fun of(element: PsiElement): VisitedElementSet =
+            VisitedElementSet(element, null, Trie.EMPTY.plus(element, element.hashCode(), 0))
+    }
+}
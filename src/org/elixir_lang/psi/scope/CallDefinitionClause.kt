@@ -279,18 +279,51 @@ abstract class CallDefinitionClause : PsiScopeProcessor {
 
     private fun implicitImports(element: PsiElement, state: ResolveState): Boolean {
         val project = element.project
+        val implicitImports = implicitImportsPrefix()?.let { ImplicitImports.getInstance(project) }
 
-        val keepProcessing = implicitImport(project, KERNEL, state)
+        val keepProcessing = implicitImport(project, KERNEL, implicitImports?.kernel, state)
 
         return if (keepProcessing) {
             val modularCanonicalNameState = state.put(MODULAR_CANONICAL_NAME, KERNEL_SPECIAL_FORMS)
 
-            implicitImport(project, KERNEL_SPECIAL_FORMS, modularCanonicalNameState)
+            implicitImport(project, KERNEL_SPECIAL_FORMS, implicitImports?.kernelSpecialForms, modularCanonicalNameState)
         } else {
             false
         }
     }
 
+    /**
+     * The prefix that all names of the call definitions this processor is looking for start with.  When not `null`,
+     * only the call definitions of the implicit imports starting with the prefix are looked up in [ImplicitImports]
+     * instead of walking all of `Kernel` and `Kernel.SpecialForms`.
+     */
+    protected open fun implicitImportsPrefix(): String? = null
+
+    private fun implicitImport(
+        project: Project,
+        moduleName: String,
+        exports: ImplicitImports.Exports?,
+        state: ResolveState
+    ): Boolean =
+        if (exports != null) {
+            whileIn(exports.startingWith(implicitImportsPrefix()!!)) { export ->
+                when (val definition = export.definition) {
+                    is Call -> if (!state.hasBeenVisited(definition)) {
+                        executeOnCallDefinitionClause(
+                            definition,
+                            state.putVisitedElement(export.modular).putVisitedElement(definition)
+                        )
+                    } else {
+                        true
+                    }
+                    is CallDefinitionImpl<*> -> execute(definition, state)
+                    else -> true
+                }
+            }
+        } else {
+            implicitImport(project, moduleName, state)
+        }
+
     private fun implicitImport(project: Project, moduleName: String, state: ResolveState): Boolean =
         if (DumbService.isDumb(project)) {
             true
@@ -0,0 +1,151 @@
+package org.elixir_lang.psi.scope
+
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.util.Key
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.ResolveState
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import org.elixir_lang.beam.psi.impl.ModuleImpl
+import org.elixir_lang.psi.Modular
+import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.call.Call
+import org.elixir_lang.psi.call.name.Module.KERNEL
+import org.elixir_lang.psi.call.name.Module.KERNEL_SPECIAL_FORMS
+import org.elixir_lang.psi.putInitialVisitedElement
+import org.elixir_lang.psi.stub.index.ModularName
+import java.util.*
+
+/**
+ * The call definitions of the implicitly imported `Kernel` and `Kernel.SpecialForms` by name, so that resolving an
+ * unqualified call only visits the definitions whose names start with the call's name instead of walking every
+ * definition of both modules for every call.
+ *
+ * The table is kept per project and only recomputed when the project roots, such as the SDK, change, unless either
+ * module is in the project's content, such as when working on Elixir itself, in which case any PSI change recomputes it.
+ * The files defining either module are also dependencies, so that the table is recomputed when one of them is modified
+ * or invalidated, without checking every definition for validity on each lookup.
+ */
+class ImplicitImports private constructor(val kernel: Exports, val kernelSpecialForms: Exports) {
+    /**
+     * @param modular the `defmodule` [Call] or decompiled [ModuleImpl]
+     * @param definition a call definition clause [Call] in [modular] or a
+     *   [org.elixir_lang.beam.psi.impl.CallDefinitionImpl] in [modular]
+     */
+    class Export(val modular: PsiElement, val definition: PsiElement)
+
+    class Exports(
+        private val exportListByName: NavigableMap<String, List<Export>>,
+        /**
+         * Definitions whose name can't be known without a [ResolveState], such as `def unquote(name)()`.
+         */
+        private val unnamedExportList: List<Export>
+    ) {
+        fun startingWith(prefix: String): Sequence<Export> =
+            exportListByName
+                .subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values
+                .asSequence()
+                .flatten() + unnamedExportList.asSequence()
+
+        companion object {
+            fun from(project: Project, moduleName: String): Pair<Exports, List<PsiElement>> {
+                val exportListByName = TreeMap<String, MutableList<Export>>()
+                val unnamedExportList = mutableListOf<Export>()
+                val modularList = mutableListOf<PsiElement>()
+
+                fun add(modular: PsiElement, definition: PsiElement, name: String?) {
+                    val export = Export(modular, definition)
+
+                    if (name != null) {
+                        exportListByName.computeIfAbsent(name) { mutableListOf() }.add(export)
+                    } else {
+                        unnamedExportList.add(export)
+                    }
+                }
+
+                StubIndex
+                    .getInstance()
+                    .processElements(
+                        ModularName.KEY,
+                        moduleName,
+                        project,
+                        GlobalSearchScope.allScope(project),
+                        NamedElement::class.java
+                    ) { namedElement ->
+                        when (namedElement) {
+                            is Call -> {
+                                modularList.add(namedElement)
+
+                                Modular.callDefinitionClauseCallWhile(
+                                    namedElement,
+                                    ResolveState.initial().putInitialVisitedElement(namedElement)
+                                ) { callDefinitionClause, _ ->
+                                    add(namedElement, callDefinitionClause, callDefinitionClause.name)
+
+                                    true
+                                }
+                            }
+                            is ModuleImpl<*> -> {
+                                modularList.add(namedElement)
+
+                                namedElement.callDefinitions().forEach { callDefinition ->
+                                    add(namedElement, callDefinition, callDefinition.nameArityInterval.name)
+                                }
+                            }
+                        }
+
+                        true
+                    }
+
+                return Exports(TreeMap(exportListByName), unnamedExportList) to modularList
+            }
+        }
+    }
+
+    companion object {
+        private val KEY = Key<CachedValue<ImplicitImports>>("elixir.implicit_imports")
+
+        /**
+         * @return `null` while indexing, when the exports can't be looked up.
+         */
+        fun getInstance(project: Project): ImplicitImports? =
+            if (DumbService.isDumb(project)) {
+                null
+            } else {
+                CachedValuesManager.getManager(project).getCachedValue(project, KEY, {
+                    val (kernel, kernelModularList) = Exports.from(project, KERNEL)
+                    val (kernelSpecialForms, kernelSpecialFormsModularList) =
+                        Exports.from(project, KERNEL_SPECIAL_FORMS)
+                    val projectFileIndex = ProjectRootManager.getInstance(project).fileIndex
+                    val inContent = (kernelModularList + kernelSpecialFormsModularList).any { modular ->
+                        modular.containingFile?.virtualFile?.let { projectFileIndex.isInContent(it) } ?: false
+                    }
+                    val dependencies = mutableListOf<Any>(
+                        ProjectRootManager.getInstance(project),
+                        VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS
+                    )
+
+                    if (inContent) {
+                        dependencies.add(PsiModificationTracker.MODIFICATION_COUNT)
+                    }
+
+                    (kernelModularList + kernelSpecialFormsModularList)
+                        .mapNotNullTo(mutableSetOf()) { it.containingFile }
+                        .let { dependencies.addAll(it) }
+
+                    CachedValueProvider.Result.create(
+                        ImplicitImports(kernel, kernelSpecialForms),
+                        *dependencies.toTypedArray()
+                    )
+                }, false)
+            }
+    }
+}
@@ -25,7 +25,8 @@ class ModuleAttribute(psiElement: PsiElement) : PsiPolyVariantReferenceBase<PsiE
      *
      * @return the array of available identifiers.
      */
-    override fun getVariants(): Array<Any> = getVariantsUpFromElement(myElement).toTypedArray()
+    override fun getVariants(): Array<Any> =
+        (getVariantsUpFromElement(myElement) + getVariantsInEnclosingModular(myElement)).toTypedArray()
 
     override fun handleElementRename(newModuleAttributeName: String): PsiElement =
         when (myElement) {
@@ -116,6 +117,13 @@ class ModuleAttribute(psiElement: PsiElement) : PsiPolyVariantReferenceBase<PsiE
             }
             .toList()
 
+    private fun getVariantsInEnclosingModular(element: PsiElement): List<LookupElement> =
+        ModuleAttribute
+            .declarationsInEnclosingModular(element, "@", exact = false)
+            .mapNotNull { declaration ->
+                declaration.name?.let { name -> LookupElementBuilder.createWithSmartPointer(name, declaration) }
+            }
+
     private fun getVariantsUpFromElement(element: PsiElement): List<LookupElement> =
         element
             .ancestorSequence()
@@ -1,29 +1,22 @@
 package org.elixir_lang.reference.resolver
 
 import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiElementResolveResult
 import com.intellij.psi.ResolveResult
-import com.intellij.psi.ResolveState
 import com.intellij.psi.impl.source.resolve.ResolveCache
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
 import org.elixir_lang.Arity
-import org.elixir_lang.NameArityInterval
 import org.elixir_lang.errorreport.Logger
 import org.elixir_lang.psi.*
-import org.elixir_lang.psi.CallDefinitionClause
-import org.elixir_lang.psi.CallDefinitionClause.enclosingModularMacroCall
-import org.elixir_lang.psi.CallDefinitionClause.nameArityInterval
-import org.elixir_lang.psi.Module
 import org.elixir_lang.psi.call.Call
-import org.elixir_lang.psi.call.CanonicallyNamed
 import org.elixir_lang.psi.call.qualification.Qualified
 import org.elixir_lang.psi.impl.call.qualification.qualifiedToModulars
-import org.elixir_lang.psi.scope.CallDefinitionClause.Companion.MODULAR_CANONICAL_NAME
 import org.elixir_lang.psi.scope.VisitedElementSetResolveResult
-import org.elixir_lang.psi.stub.index.AllName
-import org.elixir_lang.structure_view.element.CallDefinitionHead
-import org.elixir_lang.structure_view.element.Callback
+import org.elixir_lang.psi.stub.index.CallableNameArity
+import org.elixir_lang.psi.stub.index.CallableNamePrefix
 import org.elixir_lang.structure_view.element.Delegation
 
 object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Callable> {
@@ -152,13 +145,17 @@ object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Cal
         return if (modulars.isNotEmpty()) {
             val resolvableName = name.takeUnless { Unquote.isQualified(element, it) }
 
+            val file = element.containingFile
+
             modulars.flatMap { modular ->
-                org.elixir_lang.psi.scope.call_definition_clause.MultiResolve.resolveResults(
-                    resolvableName,
-                    arity,
-                    incompleteCode,
-                    modular
-                )
+                QualifiedResolveTable.resolveResults(file, modular, resolvableName, arity, incompleteCode) {
+                    org.elixir_lang.psi.scope.call_definition_clause.MultiResolve.resolveResults(
+                        resolvableName,
+                        arity,
+                        incompleteCode,
+                        modular
+                    )
+                }
             }
         } else {
             emptyList()
@@ -172,94 +169,85 @@ object Callable : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Cal
         incompleteCode: Boolean
     ): List<VisitedElementSetResolveResult> {
         val project = element.project
-        val resolveResults = mutableListOf<VisitedElementSetResolveResult>()
 
-        if (!DumbService.isDumb(project)) {
-            val keys = mutableListOf<String>()
-            val stubIndex = StubIndex.getInstance()
+        return if (!DumbService.isDumb(project)) {
+            if (incompleteCode) {
+                namePrefixInAnyModule(element, name)
+            } else {
+                nameArityInAnyModule(element, name, arity)
+            }
+        } else {
+            emptyList()
+        }
+    }
+
+    /**
+     * Looks up [name] and [arity] with exact keys in [CallableNameArity], so the cost does not scale with the number
+     * of names in the project.
+     */
+    private fun nameArityInAnyModule(element: Call, name: String, arity: Arity): List<VisitedElementSetResolveResult> {
+        val project = element.project
+        val resolveResults = mutableListOf<VisitedElementSetResolveResult>()
+        val stubIndex = StubIndex.getInstance()
+        val scope = GlobalSearchScope.allScope(project)
 
-            stubIndex.processAllKeys(AllName.KEY, project) { key ->
-                if ((incompleteCode && key.startsWith(name)) || key == name) {
-                    keys.add(key)
-                }
+        for (key in CallableNameArity.lookupKeys(name, arity)) {
+            processElements(stubIndex, CallableNameArity.KEY, key, project, scope) { namedElement ->
+                // results are never valid because the qualifier is unknown
+                resolveResults.add(VisitedElementSetResolveResult(namedElement, false, emptySet()))
 
                 true
             }
+        }
+
+        return resolveResults
+    }
 
+    /**
+     * Looks up the [CallableNamePrefix] bucket for [name], so the cost scales with the number of callables sharing
+     * the prefix instead of the number of names in the project.  Stops once [MAX_PREFIX_RESULTS] are found.
+     */
+    private fun namePrefixInAnyModule(element: Call, name: String): List<VisitedElementSetResolveResult> {
+        val resolveResults = mutableListOf<VisitedElementSetResolveResult>()
+
+        CallableNamePrefix.key(name)?.let { key ->
+            val project = element.project
             val scope = GlobalSearchScope.allScope(project)
-            // results are never valid because the qualifier is unknown
-            val validResult = false
-
-            for (key in keys) {
-                try {
-                    stubIndex
-                        .processElements(AllName.KEY, key, project, scope, NamedElement::class.java) { namedElement ->
-                            if (namedElement is Call) {
-                                if (CallDefinitionClause.`is`(namedElement)) {
-                                    if (incompleteCode ||
-                                        nameArityInterval(namedElement, resolveState(namedElement, key))
-                                            ?.arityInterval?.contains(arity) == true
-                                    ) {
-                                        resolveResults.add(
-                                            VisitedElementSetResolveResult(
-                                                namedElement,
-                                                validResult,
-                                                emptySet()
-                                            )
-                                        )
-                                    }
-                                } else if (Callback.`is`(namedElement)) {
-                                    if (incompleteCode ||
-                                        Callback
-                                            .headCall(namedElement as AtUnqualifiedNoParenthesesCall<*>)
-                                            ?.let {
-                                                CallDefinitionHead.nameArityInterval(
-                                                    it,
-                                                    resolveState(namedElement, key)
-                                                )
-                                            }
-                                            ?.arityInterval?.contains(arity) == true
-                                    ) {
-                                        resolveResults.add(
-                                            VisitedElementSetResolveResult(
-                                                namedElement,
-                                                validResult,
-                                                emptySet()
-                                            )
-                                        )
-                                    }
-                                }
-                            }
-
-                            true
-                        }
-                } catch (throwable: Throwable) {
-                    // ignore "Stub ids not found for key" as in #2945
-                    if (throwable.message?.contains("Stub ids not found for key") != true) {
-                        throw throwable
-                    }
+
+            processElements(StubIndex.getInstance(), CallableNamePrefix.KEY, key, project, scope) { namedElement ->
+                if (namedElement.name?.startsWith(name) == true) {
+                    // results are never valid because the qualifier is unknown
+                    resolveResults.add(VisitedElementSetResolveResult(namedElement, false, emptySet()))
                 }
+
+                resolveResults.size < MAX_PREFIX_RESULTS
             }
         }
 
         return resolveResults
     }
 
-    private fun resolveState(call: Call, name: String): ResolveState {
-        val initial = ResolveState.initial()
-
-        return if (NameArityInterval.nameIsAdjusted(name)) {
-            enclosingModularMacroCall(call)?.let { modular ->
-                if (Module.`is`(modular)) {
-                    modular.let { it as CanonicallyNamed }.canonicalName()?.let { modularCanonicalName ->
-                        initial.put(MODULAR_CANONICAL_NAME, modularCanonicalName)
-                    }
-                } else {
-                    null
-                }
-            } ?: initial
-        } else {
-            initial
+    private fun processElements(
+        stubIndex: StubIndex,
+        indexKey: StubIndexKey<String, NamedElement>,
+        key: String,
+        project: Project,
+        scope: GlobalSearchScope,
+        processor: (NamedElement) -> Boolean
+    ) {
+        try {
+            stubIndex.processElements(indexKey, key, project, scope, NamedElement::class.java, processor)
+        } catch (throwable: Throwable) {
+            // ignore "Stub ids not found for key" as in #2945
+            if (throwable.message?.contains("Stub ids not found for key") != true) {
+                throw throwable
+            }
         }
     }
 }
+
+/**
+ * Bound on the number of callables returned for an incomplete name, so that completing a short prefix in a large
+ * project stays responsive.
+ */
+private const val MAX_PREFIX_RESULTS = 500
@@ -1,7 +1,6 @@
 package org.elixir_lang.reference.resolver
 
 import com.intellij.openapi.module.ModuleUtil
-import com.intellij.openapi.project.DumbService
 import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.roots.impl.LibraryScopeCache
 import com.intellij.psi.PsiElement
@@ -16,6 +15,7 @@ import org.elixir_lang.psi.Require
 import org.elixir_lang.psi.Use
 import org.elixir_lang.psi.call.Call
 import org.elixir_lang.psi.scope.VisitedElementSetResolveResult
+import org.elixir_lang.psi.scope.module.ModularNameTable
 import org.elixir_lang.psi.scope.module.MultiResolve
 import org.elixir_lang.psi.stub.index.ModularName
 
@@ -85,55 +85,58 @@ object Module : ResolveCache.PolyVariantResolver<org.elixir_lang.reference.Modul
     private fun multiResolveProject(
         entrance: PsiElement,
         name: String
-    ): List<VisitedElementSetResolveResult> {
-        val resolveResultList = mutableListOf<VisitedElementSetResolveResult>()
-        val project = entrance.project
+    ): List<VisitedElementSetResolveResult> =
+        ModularNameTable
+            .inResolveScope(entrance, name) { modulars(entrance, name) }
+            .map { VisitedElementSetResolveResult(it) }
 
-        if (!DumbService.isDumb(project)) {
-            val projectFileIndex = ProjectRootManager.getInstance(project).fileIndex
-            val module = ModuleUtil.findModuleForPsiElement(entrance)
-            // MUST use `originalFile` to get the PsiFile with a VirtualFile for decompiled elements
-            val entranceVirtualFile = entrance.containingFile.originalFile.virtualFile
-
-            val globalSearchScope = if (module != null) {
-                val includeTests = entranceVirtualFile?.let { projectFileIndex.isInTestSourceContent(it) } ?: false
-                // DOES NOT include the libraries sources, but...
-                val moduleWithDependenciesAndLibrariesScope =
-                    GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, includeTests)
-
-                entranceVirtualFile?.let {
-                    // ... we prefer sources compared to decompiled, so use LibraryScope to get the Library source too.
-                    val orderEntries = projectFileIndex.getOrderEntriesForFile(entranceVirtualFile)
-                    val libraryScope =
-                        LibraryScopeCache
-                            .getInstance(project)
-                            .getLibraryScope(orderEntries)
-
-                    moduleWithDependenciesAndLibrariesScope.uniteWith(libraryScope)
-                } ?: moduleWithDependenciesAndLibrariesScope
-            } else {
-                GlobalSearchScope.allScope(project)
-            }
+    private fun modulars(entrance: PsiElement, name: String): List<NamedElement> {
+        val modularList = mutableListOf<NamedElement>()
+        val project = entrance.project
 
-            StubIndex
-                .getInstance()
-                .processElements(
-                    ModularName.KEY,
-                    name,
-                    project,
-                    globalSearchScope,
-                    null,
-                    NamedElement::class.java
-                ) { namedElement ->
-                    /**
-                     * Don't use `namedElement.navigationElement` as it triggers decompiling of the whole module,
-                     * which will parse the whole Module text, which is overkill to get the module's name that is
-                     * available in the `ModuleImpl` alone.
-                     */
-                    resolveResultList.add(VisitedElementSetResolveResult(namedElement))
-                }
+        val projectFileIndex = ProjectRootManager.getInstance(project).fileIndex
+        val module = ModuleUtil.findModuleForPsiElement(entrance)
+        // MUST use `originalFile` to get the PsiFile with a VirtualFile for decompiled elements
+        val entranceVirtualFile = entrance.containingFile.originalFile.virtualFile
+
+        val globalSearchScope = if (module != null) {
+            val includeTests = entranceVirtualFile?.let { projectFileIndex.isInTestSourceContent(it) } ?: false
+            // DOES NOT include the libraries sources, but...
+            val moduleWithDependenciesAndLibrariesScope =
+                GlobalSearchScope.moduleWithDependenciesAndLibrariesScope(module, includeTests)
+
+            entranceVirtualFile?.let {
+                // ... we prefer sources compared to decompiled, so use LibraryScope to get the Library source too.
+                val orderEntries = projectFileIndex.getOrderEntriesForFile(entranceVirtualFile)
+                val libraryScope =
+                    LibraryScopeCache
+                        .getInstance(project)
+                        .getLibraryScope(orderEntries)
+
+                moduleWithDependenciesAndLibrariesScope.uniteWith(libraryScope)
+            } ?: moduleWithDependenciesAndLibrariesScope
+        } else {
+            GlobalSearchScope.allScope(project)
         }
 
-        return resolveResultList
+        StubIndex
+            .getInstance()
+            .processElements(
+                ModularName.KEY,
+                name,
+                project,
+                globalSearchScope,
+                null,
+                NamedElement::class.java
+            ) { namedElement ->
+                /**
+                 * Don't use `namedElement.navigationElement` as it triggers decompiling of the whole module,
+                 * which will parse the whole Module text, which is overkill to get the module's name that is
+                 * available in the `ModuleImpl` alone.
+                 */
+                modularList.add(namedElement)
+            }
+
+        return modularList
     }
 }
@@ -10,12 +10,16 @@ import org.elixir_lang.beam.psi.impl.CallDefinitionStubImpl
 import org.elixir_lang.beam.psi.impl.ModuleImpl
 import org.elixir_lang.psi.ElixirAtom
 import org.elixir_lang.psi.NamedElement
+import org.elixir_lang.psi.call.StubBased
+import org.elixir_lang.psi.impl.enclosingMacroCall
 import org.elixir_lang.psi.scope.ResolveResultOrderedSet
 import org.elixir_lang.psi.scope.module_attribute.MultiResolve
 import org.elixir_lang.psi.scope.module_attribute.implemetation.For
 import org.elixir_lang.psi.scope.module_attribute.implemetation.Protocol
 import org.elixir_lang.psi.stub.index.ModularName
+import org.elixir_lang.psi.stub.index.ModuleAttributeName
 import org.elixir_lang.psi.stub.index.QuoteModuleAttributeName
+import org.elixir_lang.psi.stub.type.call.Stub
 import org.elixir_lang.reference.ModuleAttribute
 
 object ModuleAttribute : ResolveCache.PolyVariantResolver<ModuleAttribute> {
@@ -51,6 +55,10 @@ object ModuleAttribute : ResolveCache.PolyVariantResolver<ModuleAttribute> {
                 )
             }
 
+            if (resolveResultOrderedSet.keepProcessing(incompleteCode)) {
+                resolveResultOrderedSet.addAll(nameInEnclosingModular(element, moduleAttribute.value, incompleteCode))
+            }
+
             if (resolveResultOrderedSet.keepProcessing(incompleteCode)) {
                 resolveResultOrderedSet.addAll(nameInAnyQuote(element, moduleAttribute.value, incompleteCode))
                 // no need to recheck `keepProcessing` since `nameInAnyQuote` is always invalid results
@@ -73,32 +81,31 @@ object ModuleAttribute : ResolveCache.PolyVariantResolver<ModuleAttribute> {
             }
         }
 
-    private fun nameInAnyQuote(
-        element: PsiElement,
-        name: String,
-        incompleteCode: Boolean
-    ): ResolveResultOrderedSet {
-        val project = element.project
-        val keys = mutableListOf<String>()
-        val stubIndex = StubIndex.getInstance()
-
-        stubIndex.processAllKeys(QuoteModuleAttributeName.KEY, project) { key ->
-            if ((incompleteCode && key.startsWith(name)) || key == name) {
-                keys.add(key)
-            }
+    /**
+     * Module attribute declarations in the modular enclosing [element] that are in other files, such as when the
+     * module is reopened.  Declarations in the same file are found by [MultiResolve] walking up from [element].
+     *
+     * @param exact `true` to only find declarations named [name]; `false` to find those starting with [name].
+     */
+    fun declarationsInEnclosingModular(element: PsiElement, name: String, exact: Boolean): List<NamedElement> {
+        val modularNameSet = enclosingModularNameSet(element)
 
-            true
-        }
+        return if (modularNameSet.isNotEmpty()) {
+            val project = element.project
+            val scope = GlobalSearchScope.allScope(project)
+            val containingFile = element.containingFile.originalFile
+            val stubIndex = StubIndex.getInstance()
+            val declarationList = mutableListOf<NamedElement>()
 
-        val scope = GlobalSearchScope.allScope(project)
-        val resolveResultOrderedSet = ResolveResultOrderedSet()
-        // results are never valid because this doesn't prove the parent `quote` is included at the `element` site.
-        val validResult = false
+            for (modularName in modularNameSet) {
+                val key = if (exact) {
+                    ModuleAttributeName.key(modularName, name)
+                } else {
+                    ModuleAttributeName.prefixKey(modularName, name)
+                }
 
-        for (key in keys) {
-            stubIndex
-                .processElements(
-                    QuoteModuleAttributeName.KEY,
+                stubIndex.processElements(
+                    ModuleAttributeName.KEY,
                     key,
                     project,
                     scope,
@@ -106,17 +113,84 @@ object ModuleAttribute : ResolveCache.PolyVariantResolver<ModuleAttribute> {
                 ) { namedElement ->
                     val namedElementName = namedElement.name
 
-                    if (namedElementName != null && namedElementName.startsWith(name)) {
-                        resolveResultOrderedSet.add(namedElement, namedElementName, validResult, emptySet())
+                    if (namedElement.containingFile != containingFile &&
+                        namedElementName != null && namedElementName.startsWith(name)) {
+                        declarationList.add(namedElement)
                     }
 
                     true
                 }
+            }
+
+            declarationList
+        } else {
+            emptyList()
+        }
+    }
+
+    private fun enclosingModularNameSet(element: PsiElement): Set<String> =
+        generateSequence(element.enclosingMacroCall()) { it.enclosingMacroCall() }
+            .firstOrNull { Stub.isModular(it) }
+            ?.let { it as? StubBased<*> }
+            ?.canonicalNameSet()
+            .orEmpty()
+
+    private fun nameInEnclosingModular(
+        element: PsiElement,
+        name: String,
+        incompleteCode: Boolean
+    ): ResolveResultOrderedSet {
+        val resolveResultOrderedSet = ResolveResultOrderedSet()
+        // results are never valid because module attributes are scoped to one `defmodule` body and these are from a
+        // reopened or duplicate modular in another file.
+        val validResult = false
+
+        for (declaration in declarationsInEnclosingModular(element, name, exact = !incompleteCode)) {
+            val declarationName = declaration.name!!
+
+            resolveResultOrderedSet.add(declaration, declarationName, validResult, emptySet())
         }
 
         return resolveResultOrderedSet
     }
 
+    private fun nameInAnyQuote(
+        element: PsiElement,
+        name: String,
+        incompleteCode: Boolean
+    ): ResolveResultOrderedSet {
+        val project = element.project
+        val key = if (incompleteCode) {
+            QuoteModuleAttributeName.prefixKey(name)
+        } else {
+            name
+        }
+        val scope = GlobalSearchScope.allScope(project)
+        val resolveResultOrderedSet = ResolveResultOrderedSet()
+        // results are never valid because this doesn't prove the parent `quote` is included at the `element` site.
+        val validResult = false
+
+        StubIndex
+            .getInstance()
+            .processElements(
+                QuoteModuleAttributeName.KEY,
+                key,
+                project,
+                scope,
+                NamedElement::class.java
+            ) { namedElement ->
+                val namedElementName = namedElement.name
+
+                if (namedElementName != null && namedElementName.startsWith(name)) {
+                    resolveResultOrderedSet.add(namedElement, namedElementName, validResult, emptySet())
+                }
+
+                true
+            }
+
+        return resolveResultOrderedSet
+    }
+
     private val ELIXIR_MODULE_ERL_NAMES = arrayOf(
         "after_compile",
         "before_compile",
@@ -0,0 +1,43 @@
+package org.elixir_lang.reference.resolver
+
+import com.intellij.openapi.util.Key
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import org.elixir_lang.psi.scope.VisitedElementSetResolveResult
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * Results of resolving qualified calls in a file, such as `Enum.map(...)`, by the modular, name and arity they resolve
+ * in.  Unlike unqualified calls, the results don't depend on where the call is, so every `Enum.map/2` in the file
+ * shares one walk of `Enum` between the annotators and inspections instead of each call walking it again.
+ *
+ * The table is dropped on any PSI modification because the modular may be in another file.
+ */
+object QualifiedResolveTable {
+    private data class Entry(val modular: PsiElement, val name: String?, val arity: Int, val incompleteCode: Boolean)
+
+    private val TABLE: Key<CachedValue<ConcurrentMap<Entry, List<VisitedElementSetResolveResult>>>> =
+        Key.create("QualifiedResolveTable.TABLE")
+
+    fun resolveResults(
+        file: PsiFile,
+        modular: PsiElement,
+        name: String?,
+        arity: Int,
+        incompleteCode: Boolean,
+        resolve: () -> List<VisitedElementSetResolveResult>
+    ): List<VisitedElementSetResolveResult> {
+        val table = CachedValuesManager.getCachedValue(file, TABLE) {
+            CachedValueProvider.Result.create(ConcurrentHashMap(), PsiModificationTracker.MODIFICATION_COUNT)
+        }
+        val entry = Entry(modular, name, arity, incompleteCode)
+
+        // not `computeIfAbsent` because resolving can recursively resolve other entries in the same table
+        return table[entry] ?: resolve().also { table[entry] = it }
+    }
+}
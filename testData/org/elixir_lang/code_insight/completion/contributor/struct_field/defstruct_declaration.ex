@@ -0,0 +1,3 @@
+defmodule Prefix.User do
+  defstruct [:email, name: nil, age: 0]
+end
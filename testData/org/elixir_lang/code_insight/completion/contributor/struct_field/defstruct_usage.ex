@@ -0,0 +1,7 @@
+defmodule Prefix.UserUsage do
+  alias Prefix.User
+
+  def new do
+    %User{name: "Alice", <caret>}
+  end
+end
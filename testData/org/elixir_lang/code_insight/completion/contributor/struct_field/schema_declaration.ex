@@ -0,0 +1,9 @@
+defmodule Prefix.Post do
+  use Ecto.Schema
+
+  schema "posts" do
+    field :title, :string
+    belongs_to :author, Prefix.User
+    timestamps()
+  end
+end
@@ -0,0 +1,7 @@
+defmodule Prefix.PostUsage do
+  alias Prefix.Post
+
+  def new do
+    %Post{<caret>}
+  end
+end
@@ -0,0 +1,9 @@
+defmodule Defaults do
+  def with_defaults(required, optional \\ 1, other_optional \\ 2) do
+    {required, optional, other_optional}
+  end
+
+  defp without_defaults(required) do
+    required
+  end
+end
@@ -0,0 +1,52 @@
+package org.elixir_lang.code_insight.completion.contributor;
+
+import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.testFramework.fixtures.LightPlatformCodeInsightFixtureTestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class StructFieldTest extends LightPlatformCodeInsightFixtureTestCase {
+    /*
+     * Tests
+     */
+
+    public void testDefstruct() {
+        myFixture.configureByFiles("defstruct_usage.ex", "defstruct_declaration.ex");
+        myFixture.complete(CompletionType.BASIC, 1);
+        List<String> strings = myFixture.getLookupElementStrings();
+        assertNotNull("Completion lookup not shown", strings);
+        assertEquals(new HashSet<>(Arrays.asList("email: ", "age: ")), new HashSet<>(strings));
+    }
+
+    public void testSchema() {
+        myFixture.configureByFiles("schema_usage.ex", "schema_declaration.ex");
+        myFixture.complete(CompletionType.BASIC, 1);
+        List<String> strings = myFixture.getLookupElementStrings();
+        assertNotNull("Completion lookup not shown", strings);
+        assertEquals(
+                new HashSet<>(
+                        Arrays.asList(
+                                "id: ",
+                                "__meta__: ",
+                                "title: ",
+                                "author: ",
+                                "author_id: ",
+                                "inserted_at: ",
+                                "updated_at: "
+                        )
+                ),
+                new HashSet<>(strings)
+        );
+    }
+
+    /*
+     * Protected Instance Methods
+     */
+
+    @Override
+    protected String getTestDataPath() {
+        return "testData/org/elixir_lang/code_insight/completion/contributor/struct_field";
+    }
+}
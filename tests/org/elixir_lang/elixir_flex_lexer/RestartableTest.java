@@ -0,0 +1,100 @@
+package org.elixir_lang.elixir_flex_lexer;
+
+import com.intellij.psi.tree.IElementType;
+import org.elixir_lang.ElixirLexer;
+import org.elixir_lang.lexer.Restartable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Restarting the restartable highlighting lexer at any token produces the same tokens as lexing from the start.
+ */
+public class RestartableTest {
+    private static final String TEXT = "defmodule MyModule do\n" +
+            "  @moduledoc \"\"\"\n" +
+            "  Heredoc with #{interpolation(\"and a #{nested} string\")}\n" +
+            "  \"\"\"\n" +
+            "\n" +
+            "  def my_function(a) do\n" +
+            "    ~r/sigil #{a}/i\n" +
+            "    ~S'''\n" +
+            "    literal heredoc\n" +
+            "    '''\n" +
+            "  end\n" +
+            "end\n";
+
+    @org.junit.Test
+    public void restartsAtEveryToken() {
+        ElixirLexer lexer = ElixirLexer.restartable();
+        List<Token> expectedTokenList = tokenList(lexer, 0, lexer.getStartState());
+        boolean checkpointed = false;
+
+        for (int i = 0; i < expectedTokenList.size(); i++) {
+            Token token = expectedTokenList.get(i);
+
+            assertTrue("State " + token.state + " is not restartable", lexer.isRestartableState(token.state));
+            checkpointed |= token.state >= Restartable.CHECKPOINT_BASE;
+
+            List<Token> actualTokenList = tokenList(lexer, token.start, token.state);
+
+            assertEquals(
+                    "Restarting at " + token.start + " did not produce the same tokens",
+                    expectedTokenList.subList(i, expectedTokenList.size()),
+                    actualTokenList
+            );
+        }
+
+        assertTrue("No token had a non-empty stack", checkpointed);
+    }
+
+    private static List<Token> tokenList(ElixirLexer lexer, int startOffset, int initialState) {
+        List<Token> tokenList = new ArrayList<>();
+
+        lexer.start(TEXT, startOffset, TEXT.length(), initialState);
+
+        IElementType tokenType;
+
+        while ((tokenType = lexer.getTokenType()) != null) {
+            tokenList.add(new Token(lexer.getTokenStart(), lexer.getState(), tokenType));
+            lexer.advance();
+        }
+
+        return tokenList;
+    }
+
+    private static class Token {
+        private final int start;
+        private final int state;
+        private final IElementType tokenType;
+
+        Token(int start, int state, IElementType tokenType) {
+            this.start = start;
+            this.state = state;
+            this.tokenType = tokenType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Token)) {
+                return false;
+            }
+
+            Token otherToken = (Token) other;
+
+            return start == otherToken.start && state == otherToken.state && tokenType == otherToken.tokenType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * start + state) + tokenType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return tokenType + "@" + start + " (" + state + ")";
+        }
+    }
+}
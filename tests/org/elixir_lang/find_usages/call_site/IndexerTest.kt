@@ -0,0 +1,60 @@
+package org.elixir_lang.find_usages.call_site
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class IndexerTest {
+    @Test
+    fun parentheses() {
+        assertKeySet(setOf("zero/0", "one/1", "two/2"), "zero()\none(1)\ntwo(1, [2, 3])")
+    }
+
+    @Test
+    fun trailingKeywordsAreOneArgument() {
+        assertKeySet(setOf("call/2", "a/?", "other/1"), "call(a, b: 1, c: other(2))")
+    }
+
+    @Test
+    fun quotedKeywordKeysAreOneArgument() {
+        assertKeySet(setOf("call/2", "a/?"), "call(a, \"b\": 1, \"c\": 2)")
+    }
+
+    @Test
+    fun keywordKeysAreNotKeyed() {
+        assertKeySet(setOf("call/1", "value/?"), "call(key: value)")
+    }
+
+    @Test
+    fun doKeywordKeyIsNotKeyedOrABlock() {
+        assertKeySet(setOf("call/1", "value/?"), "call(do: value)")
+    }
+
+    @Test
+    fun keywordBlockKeys() {
+        assertKeySet(setOf("call/2"), "call(true, do: 1, else: 2)")
+    }
+
+    @Test
+    fun pipe() {
+        assertKeySet(setOf("value/?", "call/2"), "value |> Qualifier.call(1)")
+    }
+
+    @Test
+    fun doBlock() {
+        assertKeySet(setOf("call/2", "value/?"), "call(1) do\n  value\nend")
+    }
+
+    @Test
+    fun capture() {
+        assertKeySet(setOf("call/3"), "&call/3")
+    }
+
+    @Test
+    fun noParentheses() {
+        assertKeySet(setOf("call/?", "argument/?"), "call argument")
+    }
+
+    private fun assertKeySet(expected: Set<String>, text: String) {
+        assertEquals(expected, Index.INDEXER.keySet(text))
+    }
+}
@@ -0,0 +1,39 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StubIndex
+import org.elixir_lang.PlatformTestCase
+import org.elixir_lang.psi.NamedElement
+
+class CallableNameArityTest : PlatformTestCase() {
+    fun testDefaultArgumentsAreIndexedForEachArity() {
+        myFixture.configureByFile("defaults.ex")
+
+        assertEmpty(elements("with_defaults", 0))
+        assertSize(1, elements("with_defaults", 1))
+        assertSize(1, elements("with_defaults", 2))
+        assertSize(1, elements("with_defaults", 3))
+        assertEmpty(elements("with_defaults", 4))
+    }
+
+    fun testWithoutDefaultArgumentsIsIndexedForOnlyArity() {
+        myFixture.configureByFile("defaults.ex")
+
+        assertEmpty(elements("without_defaults", 0))
+        assertSize(1, elements("without_defaults", 1))
+        assertEmpty(elements("without_defaults", 2))
+    }
+
+    private fun elements(name: String, arity: Int): List<NamedElement> =
+        CallableNameArity.lookupKeys(name, arity).flatMap { key ->
+            StubIndex.getElements(
+                CallableNameArity.KEY,
+                key,
+                project,
+                GlobalSearchScope.allScope(project),
+                NamedElement::class.java
+            )
+        }
+
+    override fun getTestDataPath(): String = "testData/org/elixir_lang/psi/stub/index/callable_name_arity"
+}
@@ -0,0 +1,39 @@
+package org.elixir_lang.psi.stub.index
+
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StubIndex
+import org.elixir_lang.PlatformTestCase
+import org.elixir_lang.psi.NamedElement
+
+class CallableNamePrefixTest : PlatformTestCase() {
+    fun testShortPrefix() {
+        myFixture.configureByFile("defaults.ex")
+
+        assertSize(2, elements("w"))
+        assertSize(2, elements("wit"))
+    }
+
+    fun testLongPrefixIsFilteredByCaller() {
+        myFixture.configureByFile("defaults.ex")
+
+        val elements = elements("with_")
+
+        assertSize(2, elements)
+        assertSize(1, elements.filter { it.name!!.startsWith("with_") })
+    }
+
+    fun testEmptyPrefixHasNoKey() {
+        assertNull(CallableNamePrefix.key(""))
+    }
+
+    private fun elements(prefix: String): Collection<NamedElement> =
+        StubIndex.getElements(
+            CallableNamePrefix.KEY,
+            CallableNamePrefix.key(prefix)!!,
+            project,
+            GlobalSearchScope.allScope(project),
+            NamedElement::class.java
+        )
+
+    override fun getTestDataPath(): String = "testData/org/elixir_lang/psi/stub/index/callable_name_arity"
+}